@@ -0,0 +1,137 @@
+package algorithm;
+
+import model.GridModel;
+
+/**
+ * A* search over a grid stored as flat primitive arrays.
+ * Cells are addressed by index ({@code row * width + col}), so the expansion
+ * loop works on ints and floats only and does not allocate per neighbor.
+ * Cells are closed when popped rather than when pushed, and a cheaper route to
+ * a queued cell updates it, so the path returned is optimal for any consistent
+ * heuristic. Stepping onto a cell costs its terrain cost, which is never below
+ * 1, so the standard {@link Heuristic}s stay admissible on weighted grids.
+ * With {@link Heuristic#ZERO} the search is Dijkstra's algorithm.
+ * Searches can be run a few expansions at a time through {@link #start}.
+ */
+public class AStarSearch implements SteppableSearchEngine {
+    private static final int[] D_ROW = {0, 1, 0, -1};
+    private static final int[] D_COL = {1, 0, -1, 0};
+
+    private final GridModel grid;
+    private final int width;
+    private final int height;
+    private final OpenSetType openSetType;
+    private final Heuristic heuristic;
+
+    /**
+     * Creates a new A* search for a grid.
+     *
+     * @param grid The grid to search
+     * @param openSetType The open set implementation to run on
+     * @param heuristic The estimate of the remaining cost
+     */
+    public AStarSearch(GridModel grid, OpenSetType openSetType, Heuristic heuristic) {
+        this.grid = grid;
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.openSetType = openSetType;
+        this.heuristic = heuristic;
+    }
+
+    /**
+     * Starts a search for a path between two cells.
+     *
+     * @param start The starting cell index
+     * @param goal The ending cell index
+     * @param workspace The scratch state to use, sized for this grid
+     * @param observer The receiver of the search events
+     * @return The search, ready to step
+     */
+    @Override
+    public StepwiseSearch start(int start, int goal, SearchWorkspace workspace, SearchObserver observer) {
+        return new Stepper(start, goal, workspace, observer);
+    }
+
+    private final class Stepper extends StepwiseSearch {
+        private final int goal;
+        private final int goalRow;
+        private final int goalCol;
+        private final SearchWorkspace workspace;
+        private final OpenSet openSet;
+        private final SearchObserver observer;
+        private long expansions;
+        private int evaluations;
+
+        Stepper(int start, int goal, SearchWorkspace workspace, SearchObserver observer) {
+            this.goal = goal;
+            this.goalRow = goal / width;
+            this.goalCol = goal % width;
+            this.workspace = workspace;
+            this.observer = observer;
+            workspace.begin();
+            this.openSet = workspace.getOpenSet(openSetType);
+
+            float startH = heuristic.estimate(start / width, start % width, goalRow, goalCol);
+            evaluations = 1;
+            workspace.reach(start, 0, -1);
+            openSet.push(start, startH, startH);
+            observer.onPush(start);
+        }
+
+        @Override
+        protected SearchResult advance(int maxExpansions) {
+            SearchWorkspace workspace = this.workspace;
+            OpenSet openSet = this.openSet;
+            SearchObserver observer = this.observer;
+            int budget = maxExpansions;
+
+            while (!openSet.isEmpty()) {
+                int current = openSet.pop();
+                if (workspace.isClosed(current)) {
+                    // Stale copy of a cell that was re-queued with a better g-score
+                    continue;
+                }
+                workspace.close(current);
+                expansions++;
+                observer.onExpand(current);
+
+                if (current == goal) {
+                    observer.onGoal(goal);
+                    return new SearchResult(width, workspace.reconstructPath(goal), workspace.getG(goal), expansions, evaluations);
+                }
+
+                int row = current / width;
+                int col = current % width;
+                float currentG = workspace.getG(current);
+                for (int i = 0; i < 4; i++) {
+                    int newRow = row + D_ROW[i];
+                    int newCol = col + D_COL[i];
+                    if (newRow < 0 || newRow >= height || newCol < 0 || newCol >= width) {
+                        continue;
+                    }
+
+                    int neighbor = newRow * width + newCol;
+                    if (workspace.isClosed(neighbor) || grid.isBlocked(neighbor)) {
+                        continue;
+                    }
+
+                    float tentativeG = currentG + grid.getCost(neighbor);
+                    if (tentativeG < workspace.getG(neighbor)) {
+                        float h = heuristic.estimate(newRow, newCol, goalRow, goalCol);
+                        evaluations++;
+                        workspace.reach(neighbor, tentativeG, current);
+                        // Equal f-scores prefer the cell closer to the goal
+                        openSet.push(neighbor, tentativeG + h, h);
+                        observer.onPush(neighbor);
+                    }
+                }
+
+                if (--budget == 0) {
+                    return null;
+                }
+            }
+
+            return new SearchResult(width, new int[0], Float.POSITIVE_INFINITY, expansions, evaluations);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package algorithm;
+
+/**
+ * Receives the paths an anytime search finds while it keeps improving them.
+ */
+@FunctionalInterface
+public interface AnytimeListener {
+    /**
+     * Called each time the search finds a cheaper path or tightens the bound
+     * on the current one, on the thread running the search.
+     *
+     * @param result The improved path
+     * @param suboptimalityBound A factor the path cost is guaranteed to be within of the optimum, at least 1
+     */
+    void pathImproved(SearchResult result, float suboptimalityBound);
+}
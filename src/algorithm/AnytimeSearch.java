@@ -0,0 +1,211 @@
+package algorithm;
+
+import model.GridModel;
+import util.IntList;
+
+/**
+ * Anytime Repairing A* (ARA*) for callers with a latency budget.
+ * The first pass runs A* with the heuristic inflated by a weight, which finds a
+ * path quickly whose cost is at most weight times the optimum. Each further
+ * pass lowers the weight and reuses the g-scores of the previous passes,
+ * re-expanding only the cells whose scores became inconsistent, until the
+ * weight reaches 1 (the path is optimal) or the deadline passes. Every pass
+ * publishes its path together with a suboptimality bound, which is often
+ * tighter than the weight itself.
+ */
+public class AnytimeSearch implements SearchEngine {
+    /** Inflation of the first pass used by {@link #AnytimeSearch(GridModel)}. */
+    public static final float DEFAULT_INITIAL_WEIGHT = 3;
+    /** Drop in inflation after each pass used by {@link #AnytimeSearch(GridModel)}. */
+    public static final float DEFAULT_WEIGHT_STEP = 0.5f;
+
+    private static final int[] D_ROW = {0, 1, 0, -1};
+    private static final int[] D_COL = {1, 0, -1, 0};
+    // Expansions between deadline checks, a power of two minus one
+    private static final int DEADLINE_CHECK_MASK = 255;
+
+    private final GridModel grid;
+    private final int width;
+    private final int height;
+    private final Heuristic heuristic;
+    private final float initialWeight;
+    private final float weightStep;
+
+    /**
+     * Creates a new anytime search for a grid using the Manhattan heuristic and the default weights.
+     *
+     * @param grid The grid to search
+     */
+    public AnytimeSearch(GridModel grid) {
+        this(grid, Heuristic.MANHATTAN, DEFAULT_INITIAL_WEIGHT, DEFAULT_WEIGHT_STEP);
+    }
+
+    /**
+     * Creates a new anytime search for a grid.
+     *
+     * @param grid The grid to search
+     * @param heuristic The admissible estimate to inflate
+     * @param initialWeight The inflation of the first pass, at least 1
+     * @param weightStep The amount the inflation drops after each pass, above 0
+     */
+    public AnytimeSearch(GridModel grid, Heuristic heuristic, float initialWeight, float weightStep) {
+        if (initialWeight < 1) {
+            throw new IllegalArgumentException("Initial weight must be at least 1: " + initialWeight);
+        }
+        if (weightStep <= 0) {
+            throw new IllegalArgumentException("Weight step must be positive: " + weightStep);
+        }
+        this.grid = grid;
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.heuristic = heuristic;
+        this.initialWeight = initialWeight;
+        this.weightStep = weightStep;
+    }
+
+    /**
+     * Searches without a deadline, running passes until the path is optimal.
+     *
+     * @param start The starting cell index
+     * @param goal The ending cell index
+     * @param workspace The scratch state to use, sized for this grid
+     * @param observer The receiver of the search events
+     * @return The search result, an optimal path if one exists
+     */
+    @Override
+    public SearchResult search(int start, int goal, SearchWorkspace workspace, SearchObserver observer) {
+        return search(start, goal, workspace, observer, Long.MAX_VALUE, null);
+    }
+
+    /**
+     * Searches until the path is optimal or the deadline passes.
+     * The first pass always runs to completion, so the caller gets a path (or
+     * learns that none exists) even if the deadline passes during it.
+     *
+     * @param start The starting cell index
+     * @param goal The ending cell index
+     * @param workspace The scratch state to use, sized for this grid
+     * @param observer The receiver of the search events of every pass
+     * @param deadlineNanos The {@link System#nanoTime()} value after which no further pass is started or continued
+     * @param listener The receiver of each improved path, or null
+     * @return The best path found, with the expansions of all passes up to it
+     */
+    public SearchResult search(int start, int goal, SearchWorkspace workspace, SearchObserver observer,
+                               long deadlineNanos, AnytimeListener listener) {
+        workspace.begin();
+        IndexedDaryHeap openSet = workspace.getIndexedHeap();
+        long expansions = 0;
+        // Cells improved after being closed in the current pass, queued again in the next
+        IntList inconsistent = new IntList(16);
+        IntList closed = new IntList(64);
+        IntList pending = new IntList(64);
+
+        int goalRow = goal / width;
+        int goalCol = goal % width;
+        float weight = initialWeight;
+
+        float startH = heuristic.estimate(start / width, start % width, goalRow, goalCol);
+        long evaluations = 1;
+        workspace.reach(start, 0, -1);
+        openSet.push(start, weight * startH, startH);
+        observer.onPush(start);
+
+        SearchResult best = null;
+        float bestCost = Float.POSITIVE_INFINITY;
+        float bestBound = Float.POSITIVE_INFINITY;
+        while (true) {
+            // The pass ends once no queued cell could still improve the path to the goal
+            while (!openSet.isEmpty() && openSet.getKey(openSet.peek()) < workspace.getG(goal)) {
+                if ((++expansions & DEADLINE_CHECK_MASK) == 0 && best != null && System.nanoTime() >= deadlineNanos) {
+                    observer.onGoal(goal);
+                    return best;
+                }
+                int current = openSet.pop();
+                workspace.close(current);
+                closed.add(current);
+                observer.onExpand(current);
+
+                int row = current / width;
+                int col = current % width;
+                float currentG = workspace.getG(current);
+                for (int i = 0; i < 4; i++) {
+                    int newRow = row + D_ROW[i];
+                    int newCol = col + D_COL[i];
+                    if (newRow < 0 || newRow >= height || newCol < 0 || newCol >= width) {
+                        continue;
+                    }
+
+                    int neighbor = newRow * width + newCol;
+                    if (grid.isBlocked(neighbor)) {
+                        continue;
+                    }
+                    float tentativeG = currentG + grid.getCost(neighbor);
+                    if (tentativeG >= workspace.getG(neighbor)) {
+                        continue;
+                    }
+                    workspace.reach(neighbor, tentativeG, current);
+                    if (workspace.isClosed(neighbor)) {
+                        inconsistent.add(neighbor);
+                    } else {
+                        float h = heuristic.estimate(newRow, newCol, goalRow, goalCol);
+                        evaluations++;
+                        openSet.push(neighbor, tentativeG + weight * h, h);
+                        observer.onPush(neighbor);
+                    }
+                }
+            }
+
+            if (!workspace.isSeen(goal)) {
+                return new SearchResult(width, new int[0], Float.POSITIVE_INFINITY, expansions, evaluations);
+            }
+
+            // Every cheaper path must pass through a queued or inconsistent cell,
+            // so the smallest unweighted f-score among them bounds the optimum
+            pending.clear();
+            while (!openSet.isEmpty()) {
+                pending.add(openSet.pop());
+            }
+            for (int i = 0; i < inconsistent.size(); i++) {
+                pending.add(inconsistent.get(i));
+            }
+            inconsistent.clear();
+            float lowerBound = Float.POSITIVE_INFINITY;
+            for (int i = 0; i < pending.size(); i++) {
+                int cell = pending.get(i);
+                lowerBound = Math.min(lowerBound, workspace.getG(cell) + estimate(cell, goalRow, goalCol));
+            }
+            evaluations += pending.size();
+
+            float goalG = workspace.getG(goal);
+            float bound = goalG <= lowerBound ? 1 : Math.min(weight, goalG / lowerBound);
+            best = new SearchResult(width, workspace.reconstructPath(goal), goalG, expansions, evaluations);
+            // A pass can end on the same path with the same guarantee, which is no news to the listener
+            if (listener != null && (goalG < bestCost || bound < bestBound)) {
+                listener.pathImproved(best, bound);
+            }
+            bestCost = Math.min(bestCost, goalG);
+            bestBound = Math.min(bestBound, bound);
+            if (bound <= 1 || System.nanoTime() >= deadlineNanos) {
+                observer.onGoal(goal);
+                return best;
+            }
+
+            weight = Math.max(1, weight - weightStep);
+            for (int i = 0; i < closed.size(); i++) {
+                workspace.reopen(closed.get(i));
+            }
+            closed.clear();
+            for (int i = 0; i < pending.size(); i++) {
+                int cell = pending.get(i);
+                float h = estimate(cell, goalRow, goalCol);
+                openSet.push(cell, workspace.getG(cell) + weight * h, h);
+                observer.onPush(cell);
+            }
+            evaluations += pending.size();
+        }
+    }
+
+    private float estimate(int cell, int goalRow, int goalCol) {
+        return heuristic.estimate(cell / width, cell % width, goalRow, goalCol);
+    }
+}
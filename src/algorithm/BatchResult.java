@@ -0,0 +1,105 @@
+package algorithm;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Results of a batch of path queries, in the order the queries were given,
+ * together with the throughput of the batch.
+ */
+public class BatchResult {
+    private final List<SearchResult> results;
+    private final long elapsedNanos;
+    private final int parallelism;
+
+    /**
+     * Creates a new batch result.
+     *
+     * @param results The result of each query, in query order
+     * @param elapsedNanos The wall-clock time the whole batch took
+     * @param parallelism The number of worker threads available to the batch
+     */
+    public BatchResult(List<SearchResult> results, long elapsedNanos, int parallelism) {
+        this.results = Collections.unmodifiableList(results);
+        this.elapsedNanos = elapsedNanos;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Gets the result of every query.
+     *
+     * @return An unmodifiable list whose i-th entry answers the i-th query
+     */
+    public List<SearchResult> getResults() {
+        return results;
+    }
+
+    public SearchResult get(int index) {
+        return results.get(index);
+    }
+
+    public int getQueryCount() {
+        return results.size();
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Counts the queries for which a path was found.
+     *
+     * @return The number of successful queries
+     */
+    public int getFoundCount() {
+        int found = 0;
+        for (SearchResult result : results) {
+            if (result.isFound()) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Sums the cells expanded across all queries.
+     *
+     * @return The total number of explored cells
+     */
+    public long getTotalExplored() {
+        long total = 0;
+        for (SearchResult result : results) {
+            total += result.getExploredCount();
+        }
+        return total;
+    }
+
+    /**
+     * Sums the path costs of the queries for which a path was found.
+     * Comparing the total over the same queries shows how far a non-optimal engine strays.
+     *
+     * @return The total cost of the found paths
+     */
+    public double getTotalCost() {
+        double total = 0;
+        for (SearchResult result : results) {
+            if (result.isFound()) {
+                total += result.getCost();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Calculates how many queries the batch answered per second of wall-clock time.
+     *
+     * @return The batch throughput
+     */
+    public double getQueriesPerSecond() {
+        return elapsedNanos > 0 ? results.size() * 1e9 / elapsedNanos : 0;
+    }
+}
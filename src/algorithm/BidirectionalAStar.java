@@ -0,0 +1,303 @@
+package algorithm;
+
+import model.GridModel;
+import util.IntList;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Bidirectional A* whose forward and backward frontiers run concurrently.
+ * The forward search runs on the calling thread and the backward search on a
+ * shared daemon thread. Each side publishes its g-scores so the other can spot
+ * cells reached from both ends; the cheapest such meeting is the best path
+ * known so far. A side stops once the lowest f-score in its open set is no
+ * better than that path, since every cheaper path would still have to pass
+ * through its frontier. Cells that could only lead to paths the other side's
+ * lowest f-score already rules out are skipped without expanding them (the
+ * NBA* pruning rule). Missing a meeting or reading an older f-score because of
+ * a race only delays termination or pruning, because both bounds only grow and
+ * each side on its own would still reach the other end.
+ * Stepping onto a cell costs its terrain cost, so the forward side pays for
+ * the cell it enters and the backward side for the cell it leaves.
+ * Observers are not called from the backward thread: when a query is
+ * observed, both sides log their events and the logs are replayed
+ * interleaved on the calling thread once the search ends. Interrupting the
+ * calling thread stops both sides and cancels the search.
+ * An instance holds per-direction state and runs one query at a time.
+ */
+public class BidirectionalAStar {
+    private static final int[] D_ROW = {0, 1, 0, -1};
+    private static final int[] D_COL = {1, 0, -1, 0};
+    // Forward expansions between checks for an interrupt, a power of two minus one
+    private static final int CANCEL_CHECK_MASK = 255;
+    private static final VarHandle PUBLISHED = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final ExecutorService BACKWARD_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "bidirectional-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final GridModel grid;
+    private final int width;
+    private final int height;
+    private final Frontier forward;
+    private final Frontier backward;
+    private int generation;
+
+    private volatile boolean isDone;
+    private volatile float bestCost;
+    private int meetingCell;
+    private boolean isCancelled; // Only accessed by the calling thread
+
+    /**
+     * Creates a new bidirectional search for a grid.
+     *
+     * @param grid The grid to search
+     */
+    public BidirectionalAStar(GridModel grid) {
+        this.grid = grid;
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.forward = new Frontier(grid.getCellCount());
+        this.backward = new Frontier(grid.getCellCount());
+    }
+
+    /**
+     * Searches for a path between two cells.
+     *
+     * @param start The starting cell index
+     * @param goal The ending cell index
+     * @param observer The receiver of the events of both sides, interleaved, after the search ends
+     * @return The search result, whose explored count covers both sides
+     * @throws CancellationException If the calling thread is interrupted during the search
+     */
+    public SearchResult search(int start, int goal, SearchObserver observer) {
+        if (grid.isBlocked(start) || grid.isBlocked(goal)) {
+            // The side seeded on a barrier would otherwise meet the other and report a path through it
+            return new SearchResult(width, new int[0], Float.POSITIVE_INFINITY, 0);
+        }
+        if (generation == Integer.MAX_VALUE) {
+            // Published entries from older generations could alias after wrap-around
+            forward.reset();
+            backward.reset();
+            generation = 0;
+        }
+        generation++;
+        isDone = false;
+        bestCost = Float.POSITIVE_INFINITY;
+        meetingCell = -1;
+        isCancelled = false;
+        int estimate = (int) manhattan(start / width, start % width, goal / width, goal % width);
+        int keySpread = DialSearch.keySpread(grid);
+        boolean isObserved = observer != SearchObserver.NONE;
+        forward.begin(start, estimate, generation, keySpread, isObserved);
+        backward.begin(goal, estimate, generation, keySpread, isObserved);
+        if (start == goal) {
+            offerMeeting(start, 0);
+        }
+
+        CompletableFuture<Void> backwardRun = CompletableFuture.runAsync(
+                () -> expand(backward, forward, start, goal, keySpread), BACKWARD_EXECUTOR);
+        try {
+            expand(forward, backward, goal, start, keySpread);
+        } finally {
+            // Make sure the backward side winds down even if the forward side failed
+            isDone = true;
+            backwardRun.join();
+        }
+        if (isCancelled) {
+            throw new CancellationException("Search cancelled");
+        }
+
+        if (isObserved) {
+            replay(forward.events, backward.events, observer);
+        }
+        long expansions = forward.expansions + backward.expansions;
+        if (meetingCell < 0) {
+            return new SearchResult(width, new int[0], Float.POSITIVE_INFINITY, expansions);
+        }
+        if (isObserved) {
+            observer.onGoal(goal);
+        }
+
+        int[] toStart = forward.workspace.reconstructPath(meetingCell);
+        int[] toGoal = backward.workspace.reconstructPath(meetingCell);
+        int[] path = new int[toGoal.length + toStart.length - 1];
+        for (int i = 0; i < toGoal.length; i++) {
+            path[i] = toGoal[toGoal.length - 1 - i];
+        }
+        System.arraycopy(toStart, 1, path, toGoal.length, toStart.length - 1);
+        float cost = forward.workspace.getG(meetingCell) + backward.workspace.getG(meetingCell);
+        return new SearchResult(width, path, cost, expansions);
+    }
+
+    /**
+     * Runs one side of the search until the path is proven optimal or its open set runs dry.
+     *
+     * @param side The side to expand
+     * @param other The opposite side, whose published g-scores are checked for meetings
+     * @param target The cell this side is heading for
+     * @param origin The cell this side started from
+     * @param keySpread The key spread of the bucket queues
+     */
+    private void expand(Frontier side, Frontier other, int target, int origin, int keySpread) {
+        SearchWorkspace workspace = side.workspace;
+        BucketQueue openSet = workspace.getBucketQueue(keySpread);
+        boolean isForward = side == forward;
+        int targetRow = target / width;
+        int targetCol = target % width;
+        int originRow = origin / width;
+        int originCol = origin % width;
+
+        int lowestF = 0;
+        while (!isDone && !openSet.isEmpty()) {
+            if (openSet.peekKey() != lowestF) {
+                // Only publish when the bound moves, to keep volatile writes off the common path
+                lowestF = openSet.peekKey();
+                side.lowestF = lowestF;
+            }
+            if (lowestF >= bestCost) {
+                break;
+            }
+            int current = openSet.pop();
+            float currentG = workspace.getG(current);
+            int row = current / width;
+            int col = current % width;
+            workspace.close(current);
+            // Any path through this cell still needs at least the other side's lowest f minus
+            // this cell's estimate back to our origin to get from here to the target
+            if (currentG + other.lowestF - manhattan(row, col, originRow, originCol) >= bestCost) {
+                continue;
+            }
+            side.expansions++;
+            // The backward thread never sees the caller's interrupt, but stops with the forward side
+            if (isForward && (side.expansions & CANCEL_CHECK_MASK) == 0 && Thread.currentThread().isInterrupted()) {
+                isCancelled = true;
+                break;
+            }
+            if (side.events != null) {
+                side.events.add(current);
+            }
+            // Backwards, every move is the reverse of a forward step onto this cell
+            int leaveCost = isForward ? 0 : Math.max(1, grid.getCost(current));
+
+            for (int i = 0; i < 4; i++) {
+                int newRow = row + D_ROW[i];
+                int newCol = col + D_COL[i];
+                if (newRow < 0 || newRow >= height || newCol < 0 || newCol >= width) {
+                    continue;
+                }
+
+                int neighbor = newRow * width + newCol;
+                if (workspace.isClosed(neighbor) || grid.isBlocked(neighbor)) {
+                    continue;
+                }
+
+                float tentativeG = currentG + (isForward ? grid.getCost(neighbor) : leaveCost);
+                if (tentativeG < workspace.getG(neighbor)) {
+                    workspace.reach(neighbor, tentativeG, current);
+                    side.publish(neighbor, tentativeG, generation);
+                    float h = manhattan(newRow, newCol, targetRow, targetCol);
+                    openSet.push(neighbor, tentativeG + h, 0);
+                    if (side.events != null) {
+                        side.events.add(~neighbor);
+                    }
+
+                    float otherG = other.readPublished(neighbor, generation);
+                    if (tentativeG + otherG < bestCost) {
+                        offerMeeting(neighbor, tentativeG + otherG);
+                    }
+                }
+            }
+        }
+        isDone = true;
+    }
+
+    private synchronized void offerMeeting(int cell, float cost) {
+        if (cost < bestCost) {
+            bestCost = cost;
+            meetingCell = cell;
+        }
+    }
+
+    /**
+     * Replays the event logs of both sides, alternating between them so an
+     * animation shows the two frontiers growing together.
+     */
+    private static void replay(IntList first, IntList second, SearchObserver observer) {
+        int longest = Math.max(first.size(), second.size());
+        for (int i = 0; i < longest; i++) {
+            if (i < first.size()) {
+                replay(first.get(i), observer);
+            }
+            if (i < second.size()) {
+                replay(second.get(i), observer);
+            }
+        }
+    }
+
+    private static void replay(int event, SearchObserver observer) {
+        if (event < 0) {
+            observer.onPush(~event);
+        } else {
+            observer.onExpand(event);
+        }
+    }
+
+    private static float manhattan(int row, int col, int targetRow, int targetCol) {
+        return Math.abs(row - targetRow) + Math.abs(col - targetCol);
+    }
+
+    /**
+     * State owned by one direction of the search.
+     * The published array packs the query generation and the g-score of a cell
+     * into one long, written and read atomically, so the other side never sees
+     * a g-score from an earlier query paired with the current generation.
+     */
+    private static class Frontier {
+        private final SearchWorkspace workspace;
+        private final long[] published;
+        // Expanded cells, and pushed cells stored as their complement, or null when not observed
+        private IntList events;
+        private long expansions;
+        private volatile float lowestF;
+
+        Frontier(int cellCount) {
+            this.workspace = new SearchWorkspace(cellCount);
+            this.published = new long[cellCount];
+        }
+
+        void begin(int origin, int estimate, int stamp, int keySpread, boolean isObserved) {
+            workspace.begin();
+            events = isObserved ? new IntList(64) : null;
+            expansions = 0;
+            workspace.reach(origin, 0, -1);
+            publish(origin, 0, stamp);
+            lowestF = 0;
+            // Both sides start with f equal to the distance estimate between the two ends
+            workspace.getBucketQueue(keySpread).push(origin, estimate, 0);
+            if (events != null) {
+                events.add(~origin);
+            }
+        }
+
+        void reset() {
+            Arrays.fill(published, 0L);
+        }
+
+        void publish(int cell, float g, int stamp) {
+            PUBLISHED.setOpaque(published, cell, ((long) stamp << 32) | (Float.floatToRawIntBits(g) & 0xFFFFFFFFL));
+        }
+
+        float readPublished(int cell, int stamp) {
+            long value = (long) PUBLISHED.getOpaque(published, cell);
+            return (int) (value >>> 32) == stamp ? Float.intBitsToFloat((int) value) : Float.POSITIVE_INFINITY;
+        }
+    }
+}
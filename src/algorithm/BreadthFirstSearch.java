@@ -0,0 +1,99 @@
+package algorithm;
+
+import model.GridModel;
+import util.IntList;
+
+/**
+ * Breadth-first search for unit-cost grids.
+ * Cells are expanded in order of their step count from the start, so the
+ * first path to reach the goal has the fewest moves. Without a heuristic it
+ * explores every cell closer than the goal, which makes it the baseline the
+ * informed engines are measured against. Terrain costs are ignored.
+ */
+public class BreadthFirstSearch implements SteppableSearchEngine {
+    private static final int[] D_ROW = {0, 1, 0, -1};
+    private static final int[] D_COL = {1, 0, -1, 0};
+
+    private final GridModel grid;
+    private final int width;
+    private final int height;
+
+    /**
+     * Creates a new breadth-first search for a grid.
+     *
+     * @param grid The grid to search
+     */
+    public BreadthFirstSearch(GridModel grid) {
+        this.grid = grid;
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+    }
+
+    @Override
+    public StepwiseSearch start(int start, int goal, SearchWorkspace workspace, SearchObserver observer) {
+        return new Stepper(start, goal, workspace, observer);
+    }
+
+    private final class Stepper extends StepwiseSearch {
+        private final int goal;
+        private final SearchWorkspace workspace;
+        private final SearchObserver observer;
+        private final IntList queue = new IntList(64);
+        private int head;
+        private long expansions;
+
+        Stepper(int start, int goal, SearchWorkspace workspace, SearchObserver observer) {
+            this.goal = goal;
+            this.workspace = workspace;
+            this.observer = observer;
+            workspace.begin();
+            workspace.reach(start, 0, -1);
+            queue.add(start);
+            observer.onPush(start);
+        }
+
+        @Override
+        protected SearchResult advance(int maxExpansions) {
+            SearchWorkspace workspace = this.workspace;
+            SearchObserver observer = this.observer;
+            IntList queue = this.queue;
+            int budget = maxExpansions;
+
+            while (head < queue.size()) {
+                int current = queue.get(head++);
+                expansions++;
+                observer.onExpand(current);
+
+                if (current == goal) {
+                    observer.onGoal(goal);
+                    return new SearchResult(width, workspace.reconstructPath(goal), workspace.getG(goal), expansions);
+                }
+
+                int row = current / width;
+                int col = current % width;
+                float nextG = workspace.getG(current) + 1;
+                for (int i = 0; i < 4; i++) {
+                    int newRow = row + D_ROW[i];
+                    int newCol = col + D_COL[i];
+                    if (newRow < 0 || newRow >= height || newCol < 0 || newCol >= width) {
+                        continue;
+                    }
+
+                    int neighbor = newRow * width + newCol;
+                    if (workspace.isSeen(neighbor) || grid.isBlocked(neighbor)) {
+                        continue;
+                    }
+                    workspace.reach(neighbor, nextG, current);
+                    queue.add(neighbor);
+                    observer.onPush(neighbor);
+                }
+
+                if (--budget == 0) {
+                    return null;
+                }
+            }
+
+            return new SearchResult(width, new int[0], Float.POSITIVE_INFINITY, expansions);
+        }
+    }
+}
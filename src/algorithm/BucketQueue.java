@@ -0,0 +1,144 @@
+package algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Bucket queue (Dial's algorithm) for searches whose keys are small non-negative integers.
+ * Buckets form a ring indexed by key, and each queued cell is linked into its
+ * bucket through per-cell next/prev arrays, so push, pop and decrease-key are
+ * all O(1). Keys must be integral, must never drop below the last popped key,
+ * and must stay within the ring size of it; this holds for A* with integer
+ * edge costs and a consistent integer heuristic.
+ */
+public class BucketQueue implements OpenSet {
+    private static final int NONE = -1;
+
+    private final int[] heads;
+    private final int mask;
+    private final int[] next;
+    private final int[] prev;
+    private final int[] keys;
+    private int cursor;
+    private boolean hasCursor;
+    private int size;
+
+    /**
+     * Creates a new empty bucket queue.
+     *
+     * @param cellCount The number of cells that can be queued
+     * @param maxKeySpread The largest difference between any two keys queued at the same time
+     */
+    public BucketQueue(int cellCount, int maxKeySpread) {
+        int bucketCount = Integer.highestOneBit(Math.max(1, maxKeySpread)) << 1;
+        this.heads = new int[bucketCount];
+        this.mask = bucketCount - 1;
+        this.next = new int[cellCount];
+        this.prev = new int[cellCount];
+        this.keys = new int[cellCount];
+        Arrays.fill(heads, NONE);
+        Arrays.fill(keys, NONE);
+    }
+
+    /**
+     * Gets the largest key spread this queue can hold.
+     *
+     * @return The number of buckets minus one
+     */
+    public int getMaxKeySpread() {
+        return mask;
+    }
+
+    @Override
+    public void push(int cell, float key, float tie) {
+        int intKey = (int) key;
+        if (intKey != key || intKey < 0) {
+            throw new IllegalArgumentException("Bucket queue keys must be non-negative integers: " + key);
+        }
+        if (keys[cell] != NONE) {
+            if (intKey >= keys[cell]) {
+                return;
+            }
+            unlink(cell);
+        }
+        if (!hasCursor) {
+            cursor = intKey;
+            hasCursor = true;
+        } else if (intKey < cursor || intKey - cursor > mask) {
+            throw new IllegalStateException("Key " + intKey + " is outside the bucket range starting at " + cursor);
+        }
+
+        // New cells go to the front of their bucket, so ties pop newest first
+        int bucket = intKey & mask;
+        int head = heads[bucket];
+        next[cell] = head;
+        prev[cell] = NONE;
+        if (head != NONE) {
+            prev[head] = cell;
+        }
+        heads[bucket] = cell;
+        keys[cell] = intKey;
+        size++;
+    }
+
+    @Override
+    public int pop() {
+        while (heads[cursor & mask] == NONE) {
+            cursor++;
+        }
+        int cell = heads[cursor & mask];
+        unlink(cell);
+        return cell;
+    }
+
+    /**
+     * Gets the key of the cell that would be popped next.
+     *
+     * @return The lowest key in the queue
+     */
+    public int peekKey() {
+        while (heads[cursor & mask] == NONE) {
+            cursor++;
+        }
+        return cursor;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all entries. Runs in time proportional to the number of buckets plus queued cells.
+     */
+    @Override
+    public void clear() {
+        for (int bucket = 0; bucket < heads.length; bucket++) {
+            for (int cell = heads[bucket]; cell != NONE; cell = next[cell]) {
+                keys[cell] = NONE;
+            }
+            heads[bucket] = NONE;
+        }
+        hasCursor = false;
+        size = 0;
+    }
+
+    private void unlink(int cell) {
+        int before = prev[cell];
+        int after = next[cell];
+        if (before != NONE) {
+            next[before] = after;
+        } else {
+            heads[keys[cell] & mask] = after;
+        }
+        if (after != NONE) {
+            prev[after] = before;
+        }
+        keys[cell] = NONE;
+        size--;
+    }
+}
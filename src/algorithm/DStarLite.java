@@ -0,0 +1,313 @@
+package algorithm;
+
+import model.GridListener;
+import model.GridModel;
+import util.IntList;
+
+import java.util.Arrays;
+
+/**
+ * Incremental replanning with D* Lite.
+ * The search runs backwards from the goal and keeps its distance estimates
+ * between queries. Barrier edits are queued as they happen, without waiting
+ * for a query in progress, and, on the next query, only the cells whose
+ * distances they invalidate are repaired, so a
+ * displayed path follows wall painting without searching from scratch.
+ * Moving the start reuses the search tree as well; moving the goal or a bulk
+ * grid change starts a fresh search. Stepping onto a cell costs its terrain
+ * cost, so repainting terrain is repaired the same way as barrier edits.
+ */
+public class DStarLite implements GridListener {
+    private static final int[] D_ROW = {0, 1, 0, -1};
+    private static final int[] D_COL = {1, 0, -1, 0};
+    private static final int INF = Integer.MAX_VALUE / 4;
+
+    private final GridModel grid;
+    private final int width;
+    private final int height;
+    private final int[] g;
+    private final int[] rhs;
+    private final IndexedDaryHeap openSet;
+    private final GridEditQueue edits;
+    private final IntList changedCells = new IntList(64);
+
+    private boolean initialized;
+    private int goal = -1;
+    private int lastStart = -1;
+    // Accumulated heuristic drift from start moves, keeps old keys valid lower bounds
+    private int keyModifier;
+    // The observer of the query in progress
+    private SearchObserver observer = SearchObserver.NONE;
+
+    /**
+     * Creates a new incremental search and starts tracking edits to the grid.
+     *
+     * @param grid The grid to search
+     */
+    public DStarLite(GridModel grid) {
+        this.grid = grid;
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.g = new int[grid.getCellCount()];
+        this.rhs = new int[grid.getCellCount()];
+        this.openSet = new IndexedDaryHeap(grid.getCellCount(), 4);
+        // Past this many edits repairing costs more than starting over
+        this.edits = new GridEditQueue(grid.getCellCount() / 4);
+        grid.addListener(this);
+    }
+
+    @Override
+    public void cellChanged(int cell) {
+        edits.cellChanged(cell);
+    }
+
+    @Override
+    public void gridChanged() {
+        edits.gridChanged();
+    }
+
+    /**
+     * Searches for a path between two cells, reusing the previous search where possible.
+     *
+     * @param start The starting cell index
+     * @param goal The ending cell index
+     * @param observer The receiver of this query's events; the search runs backwards, so
+     *                 the goal is pushed first and the start is the last cell settled
+     * @return The search result, whose explored count covers only the cells expanded by this query
+     */
+    public synchronized SearchResult search(int start, int goal, SearchObserver observer) {
+        this.observer = observer;
+        try {
+            return repairAndSearch(start, goal);
+        } finally {
+            this.observer = SearchObserver.NONE;
+        }
+    }
+
+    private SearchResult repairAndSearch(int start, int goal) {
+        if (edits.drainTo(changedCells)) {
+            initialized = false;
+        }
+        // Keys are stored as floats, which are exact only up to 2^24
+        if (!initialized || goal != this.goal || keyModifier > grid.getCellCount()) {
+            initialize(start, goal);
+        } else {
+            keyModifier += manhattan(lastStart, start);
+            lastStart = start;
+            applyChanges();
+        }
+
+        long expansions = computeShortestPath(start);
+        if (g[start] >= INF) {
+            return new SearchResult(width, new int[0], Float.POSITIVE_INFINITY, expansions);
+        }
+        observer.onGoal(goal);
+        return new SearchResult(width, extractPath(start), g[start], expansions);
+    }
+
+    /**
+     * Discards all search state and seeds a new backward search from the goal.
+     */
+    private void initialize(int start, int goal) {
+        Arrays.fill(g, INF);
+        Arrays.fill(rhs, INF);
+        openSet.clear();
+        changedCells.clear();
+        this.goal = goal;
+        this.lastStart = start;
+        this.keyModifier = 0;
+        this.initialized = true;
+        rhs[goal] = 0;
+        openSet.push(goal, manhattan(lastStart, goal), 0);
+        observer.onPush(goal);
+    }
+
+    /**
+     * Repairs the right-hand side values around every cell edited since the last query.
+     * Editing a cell changes the cost of the edges into and out of it, so the
+     * cell and its four neighbours are re-evaluated.
+     */
+    private void applyChanges() {
+        for (int i = 0; i < changedCells.size(); i++) {
+            int cell = changedCells.get(i);
+            updateVertex(cell);
+            int row = cell / width;
+            int col = cell % width;
+            for (int d = 0; d < 4; d++) {
+                int newRow = row + D_ROW[d];
+                int newCol = col + D_COL[d];
+                if (newRow >= 0 && newRow < height && newCol >= 0 && newCol < width) {
+                    updateVertex(newRow * width + newCol);
+                }
+            }
+        }
+        changedCells.clear();
+    }
+
+    private long computeShortestPath(int start) {
+        long expansions = 0;
+        while (!openSet.isEmpty()) {
+            int top = openSet.peek();
+            float oldKey = openSet.getKey(top);
+            float oldTie = openSet.getTie(top);
+            int startKey = calculateKey(start);
+            int startTie = Math.min(g[start], rhs[start]);
+            if (!isBefore(oldKey, oldTie, startKey, startTie) && rhs[start] == g[start]) {
+                break;
+            }
+
+            int newKey = calculateKey(top);
+            int newTie = Math.min(g[top], rhs[top]);
+            if (isBefore(oldKey, oldTie, newKey, newTie)) {
+                openSet.update(top, newKey, newTie);
+                continue;
+            }
+
+            // Reported before the pop, so an observer that aborts the query leaves the queue intact
+            observer.onExpand(top);
+            openSet.pop();
+            expansions++;
+            if (g[top] > rhs[top]) {
+                g[top] = rhs[top];
+                relaxPredecessors(top);
+            } else {
+                g[top] = INF;
+                updateVertex(top);
+                updatePredecessors(top);
+            }
+        }
+        return expansions;
+    }
+
+    /**
+     * Lowers the right-hand side of every free neighbour of a cell whose distance just decreased.
+     */
+    private void relaxPredecessors(int cell) {
+        if (grid.isBlocked(cell)) {
+            return;
+        }
+        int row = cell / width;
+        int col = cell % width;
+        int candidate = g[cell] + grid.getCost(cell);
+        for (int d = 0; d < 4; d++) {
+            int newRow = row + D_ROW[d];
+            int newCol = col + D_COL[d];
+            if (newRow < 0 || newRow >= height || newCol < 0 || newCol >= width) {
+                continue;
+            }
+            int neighbor = newRow * width + newCol;
+            if (neighbor != goal && !grid.isBlocked(neighbor) && candidate < rhs[neighbor]) {
+                rhs[neighbor] = candidate;
+                updateVertex(neighbor);
+            }
+        }
+    }
+
+    /**
+     * Re-evaluates every neighbour of a cell whose distance just became unknown.
+     */
+    private void updatePredecessors(int cell) {
+        int row = cell / width;
+        int col = cell % width;
+        for (int d = 0; d < 4; d++) {
+            int newRow = row + D_ROW[d];
+            int newCol = col + D_COL[d];
+            if (newRow >= 0 && newRow < height && newCol >= 0 && newCol < width) {
+                updateVertex(newRow * width + newCol);
+            }
+        }
+    }
+
+    /**
+     * Recomputes the right-hand side of a cell from its successors and
+     * queues it exactly when it is locally inconsistent.
+     */
+    private void updateVertex(int cell) {
+        if (cell != goal) {
+            rhs[cell] = bestSuccessorCost(cell);
+        }
+        if (g[cell] != rhs[cell]) {
+            openSet.update(cell, calculateKey(cell), Math.min(g[cell], rhs[cell]));
+            observer.onPush(cell);
+        } else {
+            openSet.remove(cell);
+        }
+    }
+
+    private int bestSuccessorCost(int cell) {
+        if (grid.isBlocked(cell)) {
+            return INF;
+        }
+        int row = cell / width;
+        int col = cell % width;
+        int best = INF;
+        for (int d = 0; d < 4; d++) {
+            int newRow = row + D_ROW[d];
+            int newCol = col + D_COL[d];
+            if (newRow < 0 || newRow >= height || newCol < 0 || newCol >= width) {
+                continue;
+            }
+            int neighbor = newRow * width + newCol;
+            if (!grid.isBlocked(neighbor) && g[neighbor] < INF) {
+                best = Math.min(best, g[neighbor] + grid.getCost(neighbor));
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Follows the cheapest successor from the start to the goal.
+     *
+     * @return The cells of the path from the goal back to the start
+     */
+    private int[] extractPath(int start) {
+        IntList path = new IntList(64);
+        int current = start;
+        path.add(current);
+        while (current != goal) {
+            int row = current / width;
+            int col = current % width;
+            int next = -1;
+            int nextCost = INF;
+            for (int d = 0; d < 4; d++) {
+                int newRow = row + D_ROW[d];
+                int newCol = col + D_COL[d];
+                if (newRow < 0 || newRow >= height || newCol < 0 || newCol >= width) {
+                    continue;
+                }
+                int neighbor = newRow * width + newCol;
+                if (!grid.isBlocked(neighbor) && g[neighbor] < INF && g[neighbor] + grid.getCost(neighbor) < nextCost) {
+                    next = neighbor;
+                    nextCost = g[neighbor] + grid.getCost(neighbor);
+                }
+            }
+            if (next < 0 || path.size() > g[start]) {
+                throw new IllegalStateException("Search state is inconsistent at cell " + current);
+            }
+            current = next;
+            path.add(current);
+        }
+
+        int[] cells = new int[path.size()];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = path.get(cells.length - 1 - i);
+        }
+        return cells;
+    }
+
+    private int calculateKey(int cell) {
+        int distance = Math.min(g[cell], rhs[cell]);
+        if (distance >= INF) {
+            return INF;
+        }
+        return distance + manhattan(lastStart, cell) + keyModifier;
+    }
+
+    private int manhattan(int a, int b) {
+        return Math.abs(a / width - b / width) + Math.abs(a % width - b % width);
+    }
+
+    private static boolean isBefore(float key, float tie, float otherKey, float otherTie) {
+        return key < otherKey || (key == otherKey && tie < otherTie);
+    }
+}
@@ -0,0 +1,188 @@
+package algorithm;
+
+import model.GridModel;
+
+/**
+ * A* search on a bucket queue for grids whose move costs are integers.
+ * Stepping onto a cell costs its terrain cost, at least 1, so the Manhattan
+ * distance stays a consistent heuristic and every f-score is an integer that
+ * grows by at most the step cost plus one. The open set is therefore a small
+ * ring of buckets with O(1) push and pop instead of a comparison-based heap.
+ * An optional {@link LandmarkHeuristic} tightens the estimate in mazes and
+ * prunes cells that cannot reach the goal at all.
+ */
+public class DialSearch implements SteppableSearchEngine {
+    private static final int[] D_ROW = {0, 1, 0, -1};
+    private static final int[] D_COL = {1, 0, -1, 0};
+    // The cheapest step, which scales the heuristics
+    private static final int MOVE_COST = 1;
+
+    private final GridModel grid;
+    private final int width;
+    private final int height;
+    private final LandmarkHeuristic landmarks;
+
+    /**
+     * Creates a new bucket-queue search for a grid using the Manhattan heuristic.
+     *
+     * @param grid The grid to search
+     */
+    public DialSearch(GridModel grid) {
+        this(grid, null);
+    }
+
+    /**
+     * Creates a new bucket-queue search for a grid.
+     *
+     * @param grid The grid to search
+     * @param landmarks Landmark tables to combine with the Manhattan heuristic, or null for Manhattan alone
+     */
+    public DialSearch(GridModel grid, LandmarkHeuristic landmarks) {
+        this.grid = grid;
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.landmarks = landmarks;
+    }
+
+    /**
+     * Starts a search for a path between two cells.
+     *
+     * @param start The starting cell index
+     * @param goal The ending cell index
+     * @param workspace The scratch state to use, sized for this grid
+     * @param observer The receiver of the search events
+     * @return The search, ready to step
+     */
+    @Override
+    public StepwiseSearch start(int start, int goal, SearchWorkspace workspace, SearchObserver observer) {
+        return new Stepper(start, goal, workspace, observer);
+    }
+
+    /**
+     * Gets the widest gap between f-scores queued at once by a search using a
+     * Manhattan-bounded heuristic on the grid.
+     * A step adds its cost to g and changes h by at most the cheapest step.
+     *
+     * @param grid The grid to search
+     * @return The key spread the bucket queue must cover
+     */
+    static int keySpread(GridModel grid) {
+        return (grid.isUniformCost() ? MOVE_COST : GridModel.MAX_COST) + MOVE_COST;
+    }
+
+    /**
+     * Calculates the larger of the Manhattan and landmark estimates between a cell and the goal.
+     */
+    private int heuristic(int cell, int row, int col, int goalRow, int goalCol, LandmarkHeuristic.Snapshot landmarkGoal) {
+        int h = manhattan(row, col, goalRow, goalCol);
+        if (landmarkGoal == null) {
+            return h;
+        }
+        int landmarkH = landmarks.estimate(cell, landmarkGoal);
+        return landmarkH == LandmarkHeuristic.UNREACHABLE ? landmarkH : Math.max(h, MOVE_COST * landmarkH);
+    }
+
+    /**
+     * Calculates the Manhattan distance heuristic between a cell and the goal.
+     */
+    private static int manhattan(int row, int col, int goalRow, int goalCol) {
+        return MOVE_COST * (Math.abs(row - goalRow) + Math.abs(col - goalCol));
+    }
+
+    private final class Stepper extends StepwiseSearch {
+        private final int goal;
+        private final int goalRow;
+        private final int goalCol;
+        private final LandmarkHeuristic.Snapshot landmarkGoal;
+        private final SearchWorkspace workspace;
+        private final BucketQueue openSet;
+        private final SearchObserver observer;
+        private long expansions;
+        private int evaluations;
+
+        Stepper(int start, int goal, SearchWorkspace workspace, SearchObserver observer) {
+            this.goal = goal;
+            this.goalRow = goal / width;
+            this.goalCol = goal % width;
+            this.workspace = workspace;
+            this.observer = observer;
+            workspace.begin();
+            this.openSet = workspace.getBucketQueue(keySpread(grid));
+
+            LandmarkHeuristic.Snapshot landmarkGoal = landmarks != null ? landmarks.prepareGoal(goal) : null;
+            if (landmarkGoal != null && landmarks.estimate(start, landmarkGoal) == LandmarkHeuristic.UNREACHABLE) {
+                if (!grid.isBlocked(start)) {
+                    // A free start in another component than the goal: leave the
+                    // open set empty, so the first step reports that no path exists
+                    this.landmarkGoal = landmarkGoal;
+                    return;
+                }
+                // The tables say nothing about a blocked start, and its neighbours'
+                // landmark bounds could jump past the bucket range, so fall back to Manhattan
+                landmarkGoal = null;
+            }
+            this.landmarkGoal = landmarkGoal;
+
+            workspace.reach(start, 0, -1);
+            openSet.push(start, heuristic(start, start / width, start % width, goalRow, goalCol, landmarkGoal), 0);
+            observer.onPush(start);
+            evaluations = 1;
+        }
+
+        @Override
+        protected SearchResult advance(int maxExpansions) {
+            SearchWorkspace workspace = this.workspace;
+            BucketQueue openSet = this.openSet;
+            SearchObserver observer = this.observer;
+            int budget = maxExpansions;
+
+            while (!openSet.isEmpty()) {
+                int current = openSet.pop();
+                workspace.close(current);
+                expansions++;
+                observer.onExpand(current);
+
+                if (current == goal) {
+                    observer.onGoal(goal);
+                    return new SearchResult(width, workspace.reconstructPath(goal), workspace.getG(goal), expansions, evaluations);
+                }
+
+                int row = current / width;
+                int col = current % width;
+                int currentG = (int) workspace.getG(current);
+                for (int i = 0; i < 4; i++) {
+                    int newRow = row + D_ROW[i];
+                    int newCol = col + D_COL[i];
+                    if (newRow < 0 || newRow >= height || newCol < 0 || newCol >= width) {
+                        continue;
+                    }
+
+                    int neighbor = newRow * width + newCol;
+                    if (workspace.isClosed(neighbor) || grid.isBlocked(neighbor)) {
+                        continue;
+                    }
+
+                    int tentativeG = currentG + grid.getCost(neighbor);
+                    if (tentativeG < workspace.getG(neighbor)) {
+                        int h = heuristic(neighbor, newRow, newCol, goalRow, goalCol, landmarkGoal);
+                        evaluations++;
+                        if (h == LandmarkHeuristic.UNREACHABLE) {
+                            // The landmarks prove this cell is cut off from the goal
+                            workspace.close(neighbor);
+                            continue;
+                        }
+                        workspace.reach(neighbor, tentativeG, current);
+                        openSet.push(neighbor, tentativeG + h, 0);
+                        observer.onPush(neighbor);
+                    }
+                }
+
+                if (--budget == 0) {
+                    return null;
+                }
+            }
+
+            return new SearchResult(width, new int[0], Float.POSITIVE_INFINITY, expansions, evaluations);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package algorithm;
+
+import util.IntList;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Observer that records the cells a search expands, in order, so an animation can replay them.
+ * A recorder belongs to one search at a time.
+ */
+public class ExplorationRecorder implements SearchObserver {
+    private final IntList expanded = new IntList(64);
+
+    @Override
+    public void onExpand(int cell) {
+        expanded.add(cell);
+    }
+
+    public int size() {
+        return expanded.size();
+    }
+
+    /**
+     * Gets the cell expanded at a position of the recording.
+     *
+     * @param index The position, from 0 for the first expansion
+     * @return The cell index
+     */
+    public int get(int index) {
+        return expanded.get(index);
+    }
+
+    /**
+     * Converts the recording to grid points.
+     *
+     * @param width The width of the searched grid, used to decode cell indices
+     * @return The expanded cells as (row, col) points, in expansion order
+     */
+    public List<Point> toPoints(int width) {
+        List<Point> points = new ArrayList<>(expanded.size());
+        for (int i = 0; i < expanded.size(); i++) {
+            int cell = expanded.get(i);
+            points.add(new Point(cell / width, cell % width));
+        }
+        return points;
+    }
+}
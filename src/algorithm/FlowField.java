@@ -0,0 +1,219 @@
+package algorithm;
+
+import model.GridModel;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+
+/**
+ * One-to-all distance and direction field towards a single goal.
+ * A single search runs backwards from the goal, so any number of agents
+ * heading for that goal can read their path by following the direction field,
+ * in time proportional to the path length. Distances are path costs: the sum
+ * of the terrain costs of the cells a path steps onto, which on a grid without
+ * terrain is the number of moves. Unit-cost grids use a breadth-first search;
+ * weighted grids use Dijkstra's algorithm on a bucket queue.
+ * The field is a snapshot: barrier edits after construction are not reflected.
+ * Interrupting the thread computing the field cancels it.
+ */
+public class FlowField {
+    /** Distance of cells that cannot reach the goal. */
+    public static final int UNREACHABLE = -1;
+    /** Direction of the goal cell and of cells that cannot reach it. */
+    public static final byte NO_DIRECTION = -1;
+
+    private static final int[] D_ROW = {0, 1, 0, -1};
+    private static final int[] D_COL = {1, 0, -1, 0};
+    // Cells settled between checks for an interrupt, a power of two minus one
+    private static final int CANCEL_CHECK_MASK = 4095;
+
+    private final int width;
+    private final int height;
+    private final int goal;
+    private final int[] distances;
+    private final byte[] directions;
+    private int reachableCount;
+    private int maxDistance;
+
+    /**
+     * Computes the field for a goal cell.
+     *
+     * @param grid The grid to search
+     * @param goal The goal cell index
+     * @throws CancellationException If the thread is interrupted while the field is computed
+     */
+    public FlowField(GridModel grid, int goal) {
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.goal = goal;
+        int cellCount = grid.getCellCount();
+        this.distances = new int[cellCount];
+        this.directions = new byte[cellCount];
+        Arrays.fill(distances, UNREACHABLE);
+        Arrays.fill(directions, NO_DIRECTION);
+
+        if (grid.isBlocked(goal)) {
+            return;
+        }
+        if (grid.isUniformCost()) {
+            breadthFirst(grid);
+        } else {
+            dijkstra(grid);
+        }
+    }
+
+    /**
+     * Fills the fields with a breadth-first search, valid when every step costs 1.
+     */
+    private void breadthFirst(GridModel grid) {
+        int[] queue = new int[grid.getCellCount()];
+        int head = 0;
+        int tail = 0;
+        distances[goal] = 0;
+        queue[tail++] = goal;
+        while (head < tail) {
+            checkInterrupt(head);
+            int current = queue[head++];
+            int row = current / width;
+            int col = current % width;
+            int nextDistance = distances[current] + 1;
+            for (int d = 0; d < 4; d++) {
+                int newRow = row + D_ROW[d];
+                int newCol = col + D_COL[d];
+                if (newRow < 0 || newRow >= height || newCol < 0 || newCol >= width) {
+                    continue;
+                }
+                int neighbor = newRow * width + newCol;
+                if (distances[neighbor] != UNREACHABLE || grid.isBlocked(neighbor)) {
+                    continue;
+                }
+                distances[neighbor] = nextDistance;
+                // The neighbour steps back the opposite way, towards the goal
+                directions[neighbor] = (byte) ((d + 2) & 3);
+                queue[tail++] = neighbor;
+                maxDistance = nextDistance;
+            }
+        }
+        reachableCount = tail;
+    }
+
+    /**
+     * Fills the fields with Dijkstra's algorithm. Moving from a cell towards the
+     * goal costs the terrain cost of the cell moved onto.
+     */
+    private void dijkstra(GridModel grid) {
+        BucketQueue queue = new BucketQueue(grid.getCellCount(), GridModel.MAX_COST);
+        distances[goal] = 0;
+        queue.push(goal, 0, 0);
+        while (!queue.isEmpty()) {
+            checkInterrupt(reachableCount);
+            int current = queue.pop();
+            reachableCount++;
+            maxDistance = distances[current];
+            int row = current / width;
+            int col = current % width;
+            int nextDistance = distances[current] + grid.getCost(current);
+            for (int d = 0; d < 4; d++) {
+                int newRow = row + D_ROW[d];
+                int newCol = col + D_COL[d];
+                if (newRow < 0 || newRow >= height || newCol < 0 || newCol >= width) {
+                    continue;
+                }
+                int neighbor = newRow * width + newCol;
+                int known = distances[neighbor];
+                if ((known != UNREACHABLE && known <= nextDistance) || grid.isBlocked(neighbor)) {
+                    continue;
+                }
+                distances[neighbor] = nextDistance;
+                directions[neighbor] = (byte) ((d + 2) & 3);
+                queue.push(neighbor, nextDistance, 0);
+            }
+        }
+    }
+
+    private static void checkInterrupt(int settled) {
+        if ((settled & CANCEL_CHECK_MASK) == 0 && Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Flow field cancelled");
+        }
+    }
+
+    public int getGoal() {
+        return goal;
+    }
+
+    /**
+     * Gets the cost of the cheapest path from a cell to the goal.
+     *
+     * @param cell The cell index
+     * @return The distance, or {@link #UNREACHABLE}
+     */
+    public int getDistance(int cell) {
+        return distances[cell];
+    }
+
+    /**
+     * Gets the move that takes a cell one step closer to the goal.
+     *
+     * @param cell The cell index
+     * @return 0 to 3 for east, south, west and north, or {@link #NO_DIRECTION}
+     */
+    public byte getDirection(int cell) {
+        return directions[cell];
+    }
+
+    /**
+     * Gets the cell one step closer to the goal.
+     *
+     * @param cell The cell index
+     * @return The next cell, or -1 at the goal or for unreachable cells
+     */
+    public int next(int cell) {
+        byte direction = directions[cell];
+        if (direction == NO_DIRECTION) {
+            return -1;
+        }
+        return cell + D_ROW[direction] * width + D_COL[direction];
+    }
+
+    /**
+     * Gets the number of cells that can reach the goal, including the goal itself.
+     *
+     * @return The reachable cell count
+     */
+    public int getReachableCount() {
+        return reachableCount;
+    }
+
+    /**
+     * Gets the largest finite distance in the field, used to scale heatmaps.
+     *
+     * @return The maximum distance
+     */
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+
+    /**
+     * Reads the path from a start cell by following the direction field.
+     *
+     * @param start The starting cell index
+     * @return A result holding the path from the goal back to the start, with no expansions
+     */
+    public SearchResult pathFrom(int start) {
+        int distance = distances[start];
+        if (distance == UNREACHABLE) {
+            return new SearchResult(width, new int[0], Float.POSITIVE_INFINITY, 0);
+        }
+        int steps = 0;
+        for (int cell = start; cell != goal; cell = next(cell)) {
+            steps++;
+        }
+        int[] path = new int[steps + 1];
+        int current = start;
+        for (int i = steps; i >= 0; i--) {
+            path[i] = current;
+            current = next(current);
+        }
+        return new SearchResult(width, path, distance, 0);
+    }
+}
@@ -0,0 +1,112 @@
+package algorithm;
+
+import model.GridModel;
+
+/**
+ * Greedy best-first search, ordered by the heuristic estimate alone.
+ * The search always expands the queued cell that looks closest to the goal and
+ * never revisits a cell, so it usually expands far fewer cells than A* but the
+ * path it returns can be much longer than the shortest one. The cost reported
+ * is the true cost of that path, terrain costs included.
+ */
+public class GreedyBestFirstSearch implements SteppableSearchEngine {
+    private static final int[] D_ROW = {0, 1, 0, -1};
+    private static final int[] D_COL = {1, 0, -1, 0};
+
+    private final GridModel grid;
+    private final int width;
+    private final int height;
+    private final Heuristic heuristic;
+
+    /**
+     * Creates a new greedy best-first search for a grid.
+     *
+     * @param grid The grid to search
+     * @param heuristic The estimate of the remaining cost that orders the search
+     */
+    public GreedyBestFirstSearch(GridModel grid, Heuristic heuristic) {
+        this.grid = grid;
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.heuristic = heuristic;
+    }
+
+    @Override
+    public StepwiseSearch start(int start, int goal, SearchWorkspace workspace, SearchObserver observer) {
+        return new Stepper(start, goal, workspace, observer);
+    }
+
+    private final class Stepper extends StepwiseSearch {
+        private final int goal;
+        private final int goalRow;
+        private final int goalCol;
+        private final SearchWorkspace workspace;
+        private final OpenSet openSet;
+        private final SearchObserver observer;
+        private long expansions;
+        private int evaluations;
+
+        Stepper(int start, int goal, SearchWorkspace workspace, SearchObserver observer) {
+            this.goal = goal;
+            this.goalRow = goal / width;
+            this.goalCol = goal % width;
+            this.workspace = workspace;
+            this.observer = observer;
+            workspace.begin();
+            this.openSet = workspace.getOpenSet(OpenSetType.BINARY_HEAP);
+
+            workspace.reach(start, 0, -1);
+            openSet.push(start, heuristic.estimate(start / width, start % width, goalRow, goalCol), 0);
+            observer.onPush(start);
+            evaluations = 1;
+        }
+
+        @Override
+        protected SearchResult advance(int maxExpansions) {
+            SearchWorkspace workspace = this.workspace;
+            OpenSet openSet = this.openSet;
+            SearchObserver observer = this.observer;
+            int budget = maxExpansions;
+
+            while (!openSet.isEmpty()) {
+                int current = openSet.pop();
+                expansions++;
+                observer.onExpand(current);
+
+                if (current == goal) {
+                    observer.onGoal(goal);
+                    return new SearchResult(width, workspace.reconstructPath(goal), workspace.getG(goal), expansions, evaluations);
+                }
+
+                int row = current / width;
+                int col = current % width;
+                float currentG = workspace.getG(current);
+                for (int i = 0; i < 4; i++) {
+                    int newRow = row + D_ROW[i];
+                    int newCol = col + D_COL[i];
+                    if (newRow < 0 || newRow >= height || newCol < 0 || newCol >= width) {
+                        continue;
+                    }
+
+                    int neighbor = newRow * width + newCol;
+                    // Each cell is queued once, from whichever cell reached it first
+                    if (workspace.isSeen(neighbor) || grid.isBlocked(neighbor)) {
+                        continue;
+                    }
+                    float h = heuristic.estimate(newRow, newCol, goalRow, goalCol);
+                    evaluations++;
+                    workspace.reach(neighbor, currentG + grid.getCost(neighbor), current);
+                    // Equal estimates prefer the cell that was cheaper to reach
+                    openSet.push(neighbor, h, currentG);
+                    observer.onPush(neighbor);
+                }
+
+                if (--budget == 0) {
+                    return null;
+                }
+            }
+
+            return new SearchResult(width, new int[0], Float.POSITIVE_INFINITY, expansions, evaluations);
+        }
+    }
+}
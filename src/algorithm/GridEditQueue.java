@@ -0,0 +1,66 @@
+package algorithm;
+
+import util.IntList;
+
+/**
+ * Grid edits reported to an engine that keeps state between queries, held
+ * until the engine's next query applies them. Recording an edit takes only
+ * this queue's lock, never the engine's, so the thread editing the grid does
+ * not wait for a search or rebuild in progress on another thread.
+ */
+final class GridEditQueue {
+    private final int maxCells;
+    private IntList cells = new IntList(64);
+    private boolean isGridChanged;
+
+    /**
+     * Creates a new empty queue.
+     *
+     * @param maxCells The most single-cell edits to hold; past this the queue
+     *                 records a change of the whole grid instead
+     */
+    GridEditQueue(int maxCells) {
+        this.maxCells = maxCells;
+    }
+
+    synchronized void cellChanged(int cell) {
+        if (isGridChanged) {
+            return;
+        }
+        if (cells.size() >= maxCells) {
+            gridChanged();
+            return;
+        }
+        cells.add(cell);
+    }
+
+    synchronized void gridChanged() {
+        isGridChanged = true;
+        cells.clear();
+    }
+
+    /**
+     * Takes every edit recorded since the last call, leaving the queue empty.
+     *
+     * @param changedCells The list to append the edited cells to, unless the whole grid changed
+     * @return True if the whole grid changed, in which case no cells are appended
+     */
+    boolean drainTo(IntList changedCells) {
+        IntList taken;
+        synchronized (this) {
+            if (isGridChanged) {
+                isGridChanged = false;
+                return true;
+            }
+            if (cells.isEmpty()) {
+                return false;
+            }
+            taken = cells;
+            cells = new IntList(64);
+        }
+        for (int i = 0; i < taken.size(); i++) {
+            changedCells.add(taken.get(i));
+        }
+        return false;
+    }
+}
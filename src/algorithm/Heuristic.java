@@ -0,0 +1,156 @@
+package algorithm;
+
+/**
+ * Estimate of the remaining cost from a cell to the goal, used to order an A* open set.
+ * Implementations are small final classes without state beyond a weight, so
+ * the JIT can inline the call in the expansion loop. An estimate that never
+ * exceeds the true cost (admissible) keeps A* optimal; every move on the grid
+ * costs at least 1, so all the unweighted heuristics here are admissible for
+ * 4-connected searches.
+ */
+public interface Heuristic {
+    /** Straight-line distance along rows plus columns; exact on an empty 4-connected grid. */
+    Heuristic MANHATTAN = new Manhattan();
+    /** Distance with diagonal steps costing the square root of 2; exact on an empty 8-connected grid. */
+    Heuristic OCTILE = new Octile();
+    /** Distance with diagonal steps costing 1. */
+    Heuristic CHEBYSHEV = new Chebyshev();
+    /** Straight-line distance. */
+    Heuristic EUCLIDEAN = new Euclidean();
+    /** Always 0, which turns A* into Dijkstra's algorithm. */
+    Heuristic ZERO = new Zero();
+
+    /**
+     * Estimates the cost from a cell to the goal.
+     *
+     * @param row The row of the cell
+     * @param col The column of the cell
+     * @param goalRow The row of the goal
+     * @param goalCol The column of the goal
+     * @return The estimated remaining cost, never negative
+     */
+    float estimate(int row, int col, int goalRow, int goalCol);
+
+    /**
+     * Gets a short name for status displays.
+     *
+     * @return The heuristic name
+     */
+    String getName();
+
+    /**
+     * Scales another heuristic. Weights above 1 trade optimality for fewer
+     * expansions: the path found costs at most weight times the optimum.
+     *
+     * @param base The heuristic to scale
+     * @param weight The factor to apply, not negative
+     * @return The weighted heuristic
+     */
+    static Heuristic weighted(Heuristic base, float weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Heuristic weight must not be negative: " + weight);
+        }
+        return weight == 0 ? ZERO : new Weighted(base, weight);
+    }
+
+    final class Manhattan implements Heuristic {
+        private Manhattan() {
+        }
+
+        @Override
+        public float estimate(int row, int col, int goalRow, int goalCol) {
+            return Math.abs(row - goalRow) + Math.abs(col - goalCol);
+        }
+
+        @Override
+        public String getName() {
+            return "Manhattan";
+        }
+    }
+
+    final class Octile implements Heuristic {
+        private static final float DIAGONAL_EXTRA = (float) (Math.sqrt(2) - 1);
+
+        private Octile() {
+        }
+
+        @Override
+        public float estimate(int row, int col, int goalRow, int goalCol) {
+            int dRow = Math.abs(row - goalRow);
+            int dCol = Math.abs(col - goalCol);
+            return Math.max(dRow, dCol) + DIAGONAL_EXTRA * Math.min(dRow, dCol);
+        }
+
+        @Override
+        public String getName() {
+            return "Octile";
+        }
+    }
+
+    final class Chebyshev implements Heuristic {
+        private Chebyshev() {
+        }
+
+        @Override
+        public float estimate(int row, int col, int goalRow, int goalCol) {
+            return Math.max(Math.abs(row - goalRow), Math.abs(col - goalCol));
+        }
+
+        @Override
+        public String getName() {
+            return "Chebyshev";
+        }
+    }
+
+    final class Euclidean implements Heuristic {
+        private Euclidean() {
+        }
+
+        @Override
+        public float estimate(int row, int col, int goalRow, int goalCol) {
+            int dRow = row - goalRow;
+            int dCol = col - goalCol;
+            return (float) Math.sqrt(dRow * dRow + dCol * dCol);
+        }
+
+        @Override
+        public String getName() {
+            return "Euclidean";
+        }
+    }
+
+    final class Zero implements Heuristic {
+        private Zero() {
+        }
+
+        @Override
+        public float estimate(int row, int col, int goalRow, int goalCol) {
+            return 0;
+        }
+
+        @Override
+        public String getName() {
+            return "None (Dijkstra)";
+        }
+    }
+
+    final class Weighted implements Heuristic {
+        private final Heuristic base;
+        private final float weight;
+
+        private Weighted(Heuristic base, float weight) {
+            this.base = base;
+            this.weight = weight;
+        }
+
+        @Override
+        public float estimate(int row, int col, int goalRow, int goalCol) {
+            return weight * base.estimate(row, col, goalRow, goalCol);
+        }
+
+        @Override
+        public String getName() {
+            return weight + " x " + base.getName();
+        }
+    }
+}
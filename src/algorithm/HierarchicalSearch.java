@@ -0,0 +1,518 @@
+package algorithm;
+
+import model.GridListener;
+import model.GridModel;
+import util.IntList;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Hierarchical pathfinding (HPA*) for very large grids.
+ * The grid is split into square clusters. Every free stretch of a border
+ * between two clusters gets one or two entrances, and each cluster caches the
+ * shortest in-cluster distances between its entrance cells. A query links the
+ * start and end into their clusters, runs A* over the small abstract graph of
+ * entrances, and then refines each abstract edge into cells with a search
+ * confined to one cluster. Paths are near-optimal rather than optimal.
+ * Barrier edits are queued without waiting for a query in progress; the next
+ * query marks the clusters whose entrances or distances they affect and
+ * rebuilds those clusters first. A rebuild stops between clusters once the
+ * querying thread is interrupted, and the next query finishes it.
+ */
+public class HierarchicalSearch implements GridListener {
+    private static final int[] D_ROW = {0, 1, 0, -1};
+    private static final int[] D_COL = {1, 0, -1, 0};
+    // Free border stretches at least this long get an entrance at each end
+    private static final int LONG_ENTRANCE = 6;
+
+    private final GridModel grid;
+    private final int width;
+    private final int height;
+    private final int clusterSize;
+    private final int clusterRows;
+    private final int clusterColumns;
+
+    // Per cluster: the cells of its entrance nodes and a k x k in-cluster distance matrix
+    private final int[][] clusterNodes;
+    private final float[][] clusterDistances;
+    private final boolean[] dirty;
+    private final IntList dirtyClusters = new IntList(64);
+    private final GridEditQueue edits;
+    private final IntList changedCells = new IntList(64);
+
+    // Dense node numbering, rebuilt whenever a cluster changes
+    private int[] nodeOffset;
+    private int[] nodeCell;
+    private int[] nodeCluster;
+    private int nodeCount;
+    private SearchWorkspace abstractWorkspace;
+    // The observer of the query in progress
+    private SearchObserver observer = SearchObserver.NONE;
+
+    // Scratch state for breadth-first searches confined to one cluster
+    private final int[] localDistance;
+    private final int[] localParent;
+    private final int[] localQueue;
+
+    /**
+     * Creates a new hierarchical search and starts tracking edits to the grid.
+     * The cluster abstraction is built lazily on the first query.
+     * 
+     * @param grid The grid to search
+     * @param clusterSize The side length of each cluster in cells
+     */
+    public HierarchicalSearch(GridModel grid, int clusterSize) {
+        if (clusterSize < 2) {
+            throw new IllegalArgumentException("Cluster size must be at least 2: " + clusterSize);
+        }
+        this.grid = grid;
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.clusterSize = clusterSize;
+        this.clusterRows = (height + clusterSize - 1) / clusterSize;
+        this.clusterColumns = (width + clusterSize - 1) / clusterSize;
+
+        int clusterCount = clusterRows * clusterColumns;
+        this.clusterNodes = new int[clusterCount][];
+        this.clusterDistances = new float[clusterCount][];
+        this.dirty = new boolean[clusterCount];
+        this.nodeOffset = new int[clusterCount + 1];
+
+        this.localDistance = new int[clusterSize * clusterSize];
+        this.localParent = new int[clusterSize * clusterSize];
+        this.localQueue = new int[clusterSize * clusterSize];
+
+        // Past this many queued edits, marking every cluster dirty beats keeping the cells
+        this.edits = new GridEditQueue(clusterCount * clusterSize);
+        markAllDirty();
+        grid.addListener(this);
+    }
+
+    @Override
+    public void cellChanged(int cell) {
+        edits.cellChanged(cell);
+    }
+
+    @Override
+    public void gridChanged() {
+        edits.gridChanged();
+    }
+
+    /**
+     * Gets the number of entrance nodes in the abstract graph, rebuilding stale clusters first.
+     * 
+     * @return The number of abstract nodes
+     */
+    public synchronized int getNodeCount() {
+        rebuildDirtyClusters();
+        return nodeCount;
+    }
+
+    /**
+     * Searches for a path between two cells.
+     * 
+     * @param start The starting cell index
+     * @param goal The ending cell index
+     * @param observer The receiver of the search events, which sees the cells of the abstract nodes
+     * @return The search result, whose explored count is the number of abstract nodes expanded
+     */
+    public synchronized SearchResult search(int start, int goal, SearchObserver observer) {
+        this.observer = observer;
+        try {
+            return searchAbstractGraph(start, goal);
+        } finally {
+            this.observer = SearchObserver.NONE;
+        }
+    }
+
+    private SearchResult searchAbstractGraph(int start, int goal) {
+        rebuildDirtyClusters();
+        if (grid.isBlocked(start) || grid.isBlocked(goal)) {
+            // A barrier has no local distances, so it cannot join the abstract graph
+            return new SearchResult(width, new int[0], Float.POSITIVE_INFINITY, 0);
+        }
+
+        int startCluster = clusterOf(start);
+        int goalCluster = clusterOf(goal);
+        float[] startEdges = distancesToNodes(startCluster, start);
+        float direct = startCluster == goalCluster ? localDistance(goal, startCluster) : Float.POSITIVE_INFINITY;
+        float[] goalEdges = distancesToNodes(goalCluster, goal);
+
+        // The start and goal join the graph as two temporary nodes after the entrances
+        int startNode = nodeCount;
+        int goalNode = nodeCount + 1;
+        if (abstractWorkspace == null || abstractWorkspace.getCellCount() < nodeCount + 2) {
+            abstractWorkspace = new SearchWorkspace(nodeCount + 2);
+        }
+        SearchWorkspace workspace = abstractWorkspace;
+        workspace.begin();
+        OpenSet openSet = workspace.getOpenSet(OpenSetType.INDEXED_DARY_HEAP);
+        long expansions = 0;
+
+        workspace.reach(startNode, 0, -1);
+        float startH = manhattan(start, goal);
+        openSet.push(startNode, startH, startH);
+        observer.onPush(start);
+
+        while (!openSet.isEmpty()) {
+            int current = openSet.pop();
+            workspace.close(current);
+            int currentCell = current == startNode ? start : current == goalNode ? goal : nodeCell[current];
+            expansions++;
+            observer.onExpand(currentCell);
+
+            if (current == goalNode) {
+                observer.onGoal(goal);
+                int[] abstractPath = workspace.reconstructPath(goalNode);
+                return new SearchResult(width, refine(abstractPath, start, goal, startNode, goalNode),
+                        workspace.getG(goalNode), expansions);
+            }
+
+            float currentG = workspace.getG(current);
+            if (current == startNode) {
+                int offset = nodeOffset[startCluster];
+                for (int j = 0; j < startEdges.length; j++) {
+                    relax(workspace, openSet, current, currentG, offset + j, startEdges[j], goal);
+                }
+                relax(workspace, openSet, current, currentG, goalNode, direct, goal);
+                continue;
+            }
+
+            int cluster = nodeCluster[current];
+            int offset = nodeOffset[cluster];
+            int k = clusterNodes[cluster].length;
+            int i = current - offset;
+            float[] distances = clusterDistances[cluster];
+            for (int j = 0; j < k; j++) {
+                if (j != i) {
+                    relax(workspace, openSet, current, currentG, offset + j, distances[i * k + j], goal);
+                }
+            }
+            if (cluster == goalCluster) {
+                relax(workspace, openSet, current, currentG, goalNode, goalEdges[i], goal);
+            }
+
+            // Entrances are paired across cluster borders by single unit steps
+            int row = currentCell / width;
+            int col = currentCell % width;
+            for (int d = 0; d < 4; d++) {
+                int newRow = row + D_ROW[d];
+                int newCol = col + D_COL[d];
+                if (!grid.isInBounds(newRow, newCol)) {
+                    continue;
+                }
+                int neighborCell = newRow * width + newCol;
+                int neighborCluster = clusterOf(neighborCell);
+                if (neighborCluster == cluster || grid.isBlocked(neighborCell)) {
+                    continue;
+                }
+                int j = indexOfNode(neighborCluster, neighborCell);
+                if (j >= 0) {
+                    relax(workspace, openSet, current, currentG, nodeOffset[neighborCluster] + j, 1, goal);
+                }
+            }
+        }
+
+        return new SearchResult(width, new int[0], Float.POSITIVE_INFINITY, expansions);
+    }
+
+    private void relax(SearchWorkspace workspace, OpenSet openSet, int from, float fromG, int to, float cost, int goal) {
+        if (cost == Float.POSITIVE_INFINITY || workspace.isClosed(to)) {
+            return;
+        }
+        float tentativeG = fromG + cost;
+        if (tentativeG < workspace.getG(to)) {
+            workspace.reach(to, tentativeG, from);
+            boolean isGoal = to == nodeCount + 1;
+            float h = isGoal ? 0 : manhattan(nodeCell[to], goal);
+            openSet.push(to, tentativeG + h, h);
+            observer.onPush(isGoal ? goal : nodeCell[to]);
+        }
+    }
+
+    /**
+     * Expands an abstract path into cells, walking each in-cluster edge with a local search.
+     * 
+     * @param abstractPath The abstract nodes from the goal back to the start
+     * @return Every cell on the path from the goal back to the start
+     */
+    private int[] refine(int[] abstractPath, int start, int goal, int startNode, int goalNode) {
+        IntList path = new IntList(abstractPath.length * clusterSize);
+        int previousCell = goal;
+        path.add(goal);
+        for (int i = 1; i < abstractPath.length; i++) {
+            int node = abstractPath[i];
+            int cell = node == startNode ? start : node == goalNode ? goal : nodeCell[node];
+            int cluster = clusterOf(cell);
+            if (cluster != clusterOf(previousCell)) {
+                path.add(cell);
+            } else if (cell != previousCell) {
+                // Search from the next cell so walking its parents back leads towards the start
+                breadthFirst(cluster, cell);
+                int local = toLocal(cluster, previousCell);
+                int[] bounds = clusterBounds(cluster);
+                int clusterWidth = bounds[3] - bounds[1] + 1;
+                for (local = localParent[local]; local >= 0; local = localParent[local]) {
+                    path.add((bounds[0] + local / clusterWidth) * width + bounds[1] + local % clusterWidth);
+                }
+            }
+            previousCell = cell;
+        }
+        return path.toArray();
+    }
+
+    /**
+     * Marks the clusters whose entrances or distances an edited cell may change.
+     */
+    private void markCellDirty(int cell) {
+        int row = cell / width;
+        int col = cell % width;
+        int clusterRow = row / clusterSize;
+        int clusterCol = col / clusterSize;
+        markDirty(clusterRow, clusterCol);
+
+        // Cells on a cluster edge also decide the entrances of the neighbor across that edge
+        if (row % clusterSize == 0) {
+            markDirty(clusterRow - 1, clusterCol);
+        }
+        if (row % clusterSize == clusterSize - 1) {
+            markDirty(clusterRow + 1, clusterCol);
+        }
+        if (col % clusterSize == 0) {
+            markDirty(clusterRow, clusterCol - 1);
+        }
+        if (col % clusterSize == clusterSize - 1) {
+            markDirty(clusterRow, clusterCol + 1);
+        }
+    }
+
+    private void markDirty(int clusterRow, int clusterCol) {
+        if (clusterRow < 0 || clusterRow >= clusterRows || clusterCol < 0 || clusterCol >= clusterColumns) {
+            return;
+        }
+        int cluster = clusterRow * clusterColumns + clusterCol;
+        if (!dirty[cluster]) {
+            dirty[cluster] = true;
+            dirtyClusters.add(cluster);
+        }
+    }
+
+    private void markAllDirty() {
+        dirtyClusters.clear();
+        for (int cluster = 0; cluster < dirty.length; cluster++) {
+            dirty[cluster] = true;
+            dirtyClusters.add(cluster);
+        }
+    }
+
+    /**
+     * Applies the queued edits, recomputes the entrances and distance matrices
+     * of every dirty cluster, then renumbers the nodes.
+     *
+     * @throws CancellationException If the thread is interrupted before every cluster is rebuilt
+     */
+    private void rebuildDirtyClusters() {
+        if (edits.drainTo(changedCells)) {
+            markAllDirty();
+        }
+        for (int i = 0; i < changedCells.size(); i++) {
+            markCellDirty(changedCells.get(i));
+        }
+        changedCells.clear();
+        if (dirtyClusters.isEmpty()) {
+            return;
+        }
+        while (!dirtyClusters.isEmpty()) {
+            int cluster = dirtyClusters.removeSwap(dirtyClusters.size() - 1);
+            rebuildCluster(cluster);
+            dirty[cluster] = false;
+            // The clusters left stay dirty, so the next query picks up where this one stopped
+            if (!dirtyClusters.isEmpty() && Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Cluster rebuild cancelled");
+            }
+        }
+
+        nodeCount = 0;
+        for (int cluster = 0; cluster < clusterNodes.length; cluster++) {
+            nodeOffset[cluster] = nodeCount;
+            nodeCount += clusterNodes[cluster].length;
+        }
+        nodeOffset[clusterNodes.length] = nodeCount;
+        if (nodeCell == null || nodeCell.length < nodeCount) {
+            nodeCell = new int[nodeCount];
+            nodeCluster = new int[nodeCount];
+        }
+        for (int cluster = 0; cluster < clusterNodes.length; cluster++) {
+            int[] nodes = clusterNodes[cluster];
+            System.arraycopy(nodes, 0, nodeCell, nodeOffset[cluster], nodes.length);
+            Arrays.fill(nodeCluster, nodeOffset[cluster], nodeOffset[cluster] + nodes.length, cluster);
+        }
+    }
+
+    private void rebuildCluster(int cluster) {
+        int[] bounds = clusterBounds(cluster);
+        int top = bounds[0];
+        int left = bounds[1];
+        int bottom = bounds[2];
+        int right = bounds[3];
+
+        IntList nodes = new IntList(16);
+        if (top > 0) {
+            addEntrances(nodes, top, left, 0, 1, right - left + 1, -1, 0);
+        }
+        if (bottom < height - 1) {
+            addEntrances(nodes, bottom, left, 0, 1, right - left + 1, 1, 0);
+        }
+        if (left > 0) {
+            addEntrances(nodes, top, left, 1, 0, bottom - top + 1, 0, -1);
+        }
+        if (right < width - 1) {
+            addEntrances(nodes, top, right, 1, 0, bottom - top + 1, 0, 1);
+        }
+
+        int[] cells = nodes.toArray();
+        int k = cells.length;
+        float[] distances = new float[k * k];
+        for (int i = 0; i < k; i++) {
+            breadthFirst(cluster, cells[i]);
+            for (int j = 0; j < k; j++) {
+                distances[i * k + j] = localDistance(cells[j], cluster);
+            }
+        }
+        clusterNodes[cluster] = cells;
+        clusterDistances[cluster] = distances;
+    }
+
+    /**
+     * Scans one border of a cluster and adds an entrance cell for every free stretch.
+     * 
+     * @param nodes The cluster's entrance cells, added to without duplicates
+     * @param row The first border row inside the cluster
+     * @param col The first border column inside the cluster
+     * @param stepRow The row step along the border
+     * @param stepCol The column step along the border
+     * @param length The number of cells along the border
+     * @param acrossRow The row offset to the cell on the other side
+     * @param acrossCol The column offset to the cell on the other side
+     */
+    private void addEntrances(IntList nodes, int row, int col, int stepRow, int stepCol, int length,
+                              int acrossRow, int acrossCol) {
+        int runStart = -1;
+        for (int i = 0; i <= length; i++) {
+            int r = row + i * stepRow;
+            int c = col + i * stepCol;
+            boolean isOpen = i < length && !grid.isBlocked(r, c) && !grid.isBlocked(r + acrossRow, c + acrossCol);
+            if (isOpen && runStart < 0) {
+                runStart = i;
+            } else if (!isOpen && runStart >= 0) {
+                int runEnd = i - 1;
+                if (runEnd - runStart + 1 >= LONG_ENTRANCE) {
+                    addNode(nodes, (row + runStart * stepRow) * width + col + runStart * stepCol);
+                    addNode(nodes, (row + runEnd * stepRow) * width + col + runEnd * stepCol);
+                } else {
+                    int middle = (runStart + runEnd) / 2;
+                    addNode(nodes, (row + middle * stepRow) * width + col + middle * stepCol);
+                }
+                runStart = -1;
+            }
+        }
+    }
+
+    private static void addNode(IntList nodes, int cell) {
+        for (int i = 0; i < nodes.size(); i++) {
+            if (nodes.get(i) == cell) {
+                return;
+            }
+        }
+        nodes.add(cell);
+    }
+
+    private float[] distancesToNodes(int cluster, int cell) {
+        int[] nodes = clusterNodes[cluster];
+        float[] distances = new float[nodes.length];
+        breadthFirst(cluster, cell);
+        for (int j = 0; j < nodes.length; j++) {
+            distances[j] = localDistance(nodes[j], cluster);
+        }
+        return distances;
+    }
+
+    /**
+     * Runs a breadth-first search from a cell that never leaves its cluster.
+     * Results stay in the local distance and parent arrays until the next call.
+     */
+    private void breadthFirst(int cluster, int source) {
+        int[] bounds = clusterBounds(cluster);
+        int top = bounds[0];
+        int left = bounds[1];
+        int clusterHeight = bounds[2] - top + 1;
+        int clusterWidth = bounds[3] - left + 1;
+        Arrays.fill(localDistance, 0, clusterHeight * clusterWidth, -1);
+
+        int sourceLocal = toLocal(cluster, source);
+        localDistance[sourceLocal] = 0;
+        localParent[sourceLocal] = -1;
+        int head = 0;
+        int tail = 0;
+        localQueue[tail++] = sourceLocal;
+        while (head < tail) {
+            int local = localQueue[head++];
+            int row = local / clusterWidth;
+            int col = local % clusterWidth;
+            for (int d = 0; d < 4; d++) {
+                int newRow = row + D_ROW[d];
+                int newCol = col + D_COL[d];
+                if (newRow < 0 || newRow >= clusterHeight || newCol < 0 || newCol >= clusterWidth) {
+                    continue;
+                }
+                int next = newRow * clusterWidth + newCol;
+                if (localDistance[next] >= 0 || grid.isBlocked(top + newRow, left + newCol)) {
+                    continue;
+                }
+                localDistance[next] = localDistance[local] + 1;
+                localParent[next] = local;
+                localQueue[tail++] = next;
+            }
+        }
+    }
+
+    private float localDistance(int cell, int cluster) {
+        int distance = localDistance[toLocal(cluster, cell)];
+        return distance < 0 ? Float.POSITIVE_INFINITY : distance;
+    }
+
+    private int indexOfNode(int cluster, int cell) {
+        int[] nodes = clusterNodes[cluster];
+        for (int j = 0; j < nodes.length; j++) {
+            if (nodes[j] == cell) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    private int clusterOf(int cell) {
+        return (cell / width / clusterSize) * clusterColumns + (cell % width) / clusterSize;
+    }
+
+    /**
+     * Gets the inclusive cell bounds of a cluster as {top, left, bottom, right}.
+     */
+    private int[] clusterBounds(int cluster) {
+        int top = (cluster / clusterColumns) * clusterSize;
+        int left = (cluster % clusterColumns) * clusterSize;
+        return new int[]{top, left, Math.min(height, top + clusterSize) - 1, Math.min(width, left + clusterSize) - 1};
+    }
+
+    private int toLocal(int cluster, int cell) {
+        int top = (cluster / clusterColumns) * clusterSize;
+        int left = (cluster % clusterColumns) * clusterSize;
+        int clusterWidth = Math.min(width, left + clusterSize) - left;
+        return (cell / width - top) * clusterWidth + cell % width - left;
+    }
+
+    private int manhattan(int cell, int goal) {
+        return Math.abs(cell / width - goal / width) + Math.abs(cell % width - goal % width);
+    }
+}
@@ -0,0 +1,242 @@
+package algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Indexed d-ary min-heap over the cells of one grid.
+ * Each cell appears at most once and its slot is tracked in a position array,
+ * so a better key for a queued cell is applied in place with a true decrease-key
+ * instead of a duplicate entry. A wider arity keeps the heap shallow, which
+ * suits searches that push far more often than they pop.
+ */
+public class IndexedDaryHeap implements OpenSet {
+    private final int arity;
+    private final int[] heap;
+    private final int[] position;
+    private final float[] keys;
+    private final float[] ties;
+    private int size;
+
+    /**
+     * Creates a new empty heap.
+     *
+     * @param cellCount The number of cells that can be queued
+     * @param arity The number of children per heap node (at least 2)
+     */
+    public IndexedDaryHeap(int cellCount, int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Heap arity must be at least 2: " + arity);
+        }
+        this.arity = arity;
+        this.heap = new int[cellCount];
+        this.position = new int[cellCount];
+        this.keys = new float[cellCount];
+        this.ties = new float[cellCount];
+        Arrays.fill(position, -1);
+    }
+
+    /**
+     * Checks if a cell is currently queued.
+     *
+     * @param cell The cell index
+     * @return True if the cell is in the heap
+     */
+    public boolean contains(int cell) {
+        return position[cell] >= 0;
+    }
+
+    @Override
+    public void push(int cell, float key, float tie) {
+        int slot = position[cell];
+        if (slot < 0) {
+            slot = size++;
+            heap[slot] = cell;
+            position[cell] = slot;
+        } else if (!isBefore(key, tie, cell, keys[cell], ties[cell], cell)) {
+            return;
+        }
+        keys[cell] = key;
+        ties[cell] = tie;
+        siftUp(slot);
+    }
+
+    /**
+     * Lowers the priority of a queued cell.
+     *
+     * @param cell The cell index, which must be in the heap
+     * @param key The new primary priority, no greater than the current one
+     * @param tie The new secondary priority
+     */
+    public void decreaseKey(int cell, float key, float tie) {
+        if (position[cell] < 0) {
+            throw new IllegalStateException("Cell " + cell + " is not in the heap");
+        }
+        push(cell, key, tie);
+    }
+
+    /**
+     * Sets the priority of a cell, inserting it if needed. Unlike {@link #push}
+     * the new priority may be worse than the current one.
+     *
+     * @param cell The cell index
+     * @param key The new primary priority
+     * @param tie The new secondary priority
+     */
+    public void update(int cell, float key, float tie) {
+        int slot = position[cell];
+        if (slot < 0) {
+            push(cell, key, tie);
+            return;
+        }
+        keys[cell] = key;
+        ties[cell] = tie;
+        siftUp(slot);
+        siftDown(position[cell]);
+    }
+
+    /**
+     * Removes a cell from the heap if it is queued.
+     *
+     * @param cell The cell index
+     */
+    public void remove(int cell) {
+        int slot = position[cell];
+        if (slot < 0) {
+            return;
+        }
+        position[cell] = -1;
+        size--;
+        if (slot < size) {
+            int last = heap[size];
+            heap[slot] = last;
+            position[last] = slot;
+            siftUp(slot);
+            siftDown(position[last]);
+        }
+    }
+
+    /**
+     * Returns the cell with the lowest priority without removing it.
+     *
+     * @return The cell index
+     */
+    public int peek() {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        return heap[0];
+    }
+
+    /**
+     * Gets the primary priority a queued cell was last given.
+     *
+     * @param cell The cell index, which must be in the heap
+     * @return The primary priority
+     */
+    public float getKey(int cell) {
+        return keys[cell];
+    }
+
+    /**
+     * Gets the secondary priority a queued cell was last given.
+     *
+     * @param cell The cell index, which must be in the heap
+     * @return The secondary priority
+     */
+    public float getTie(int cell) {
+        return ties[cell];
+    }
+
+    @Override
+    public int pop() {
+        int top = heap[0];
+        position[top] = -1;
+        size--;
+        if (size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all entries. Runs in time proportional to the number of queued cells.
+     */
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int slot) {
+        int cell = heap[slot];
+        float key = keys[cell];
+        float tie = ties[cell];
+        while (slot > 0) {
+            int parentSlot = (slot - 1) / arity;
+            int parent = heap[parentSlot];
+            if (!isBefore(key, tie, cell, keys[parent], ties[parent], parent)) {
+                break;
+            }
+            heap[slot] = parent;
+            position[parent] = slot;
+            slot = parentSlot;
+        }
+        heap[slot] = cell;
+        position[cell] = slot;
+    }
+
+    private void siftDown(int slot) {
+        int cell = heap[slot];
+        float key = keys[cell];
+        float tie = ties[cell];
+        while (true) {
+            int firstChild = slot * arity + 1;
+            if (firstChild >= size) {
+                break;
+            }
+            int lastChild = Math.min(firstChild + arity, size);
+            int best = heap[firstChild];
+            int bestSlot = firstChild;
+            for (int childSlot = firstChild + 1; childSlot < lastChild; childSlot++) {
+                int child = heap[childSlot];
+                if (isBefore(keys[child], ties[child], child, keys[best], ties[best], best)) {
+                    best = child;
+                    bestSlot = childSlot;
+                }
+            }
+            if (!isBefore(keys[best], ties[best], best, key, tie, cell)) {
+                break;
+            }
+            heap[slot] = best;
+            position[best] = slot;
+            slot = bestSlot;
+        }
+        heap[slot] = cell;
+        position[cell] = slot;
+    }
+
+    private static boolean isBefore(float key, float tie, int cell, float otherKey, float otherTie, int otherCell) {
+        if (key != otherKey) {
+            return key < otherKey;
+        }
+        if (tie != otherTie) {
+            return tie < otherTie;
+        }
+        return cell < otherCell;
+    }
+}
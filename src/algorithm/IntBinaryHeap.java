@@ -0,0 +1,119 @@
+package algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of int cell indices ordered by float keys.
+ * Cells and keys live in parallel primitive arrays, so pushing and popping
+ * does not allocate once the heap has reached its working size.
+ * A cell pushed twice is stored twice; callers skip the stale copy when it is popped.
+ */
+public class IntBinaryHeap implements OpenSet {
+    private int[] cells;
+    private float[] keys;
+    private float[] ties;
+    private int size;
+
+    /**
+     * Creates a new empty heap.
+     *
+     * @param initialCapacity The number of entries that fit before the heap grows
+     */
+    public IntBinaryHeap(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        cells = new int[capacity];
+        keys = new float[capacity];
+        ties = new float[capacity];
+    }
+
+    @Override
+    public void push(int cell, float key, float tie) {
+        if (size == cells.length) {
+            cells = Arrays.copyOf(cells, size * 2);
+            keys = Arrays.copyOf(keys, size * 2);
+            ties = Arrays.copyOf(ties, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!isBefore(key, tie, cell, parent)) {
+                break;
+            }
+            move(parent, i);
+            i = parent;
+        }
+        cells[i] = cell;
+        keys[i] = key;
+        ties[i] = tie;
+    }
+
+    @Override
+    public int pop() {
+        int top = cells[0];
+        int lastCell = cells[--size];
+        float lastKey = keys[size];
+        float lastTie = ties[size];
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && isBefore(keys[right], ties[right], cells[right], child)) {
+                child = right;
+            }
+            if (!isBefore(keys[child], ties[child], cells[child], lastKey, lastTie, lastCell)) {
+                break;
+            }
+            move(child, i);
+            i = child;
+        }
+        cells[i] = lastCell;
+        keys[i] = lastKey;
+        ties[i] = lastTie;
+        return top;
+    }
+
+    /**
+     * Gets the lowest key without removing its cell.
+     *
+     * @return The lowest key in the heap
+     */
+    public float peekKey() {
+        return keys[0];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+    }
+
+    private boolean isBefore(float key, float tie, int cell, int slot) {
+        return isBefore(key, tie, cell, keys[slot], ties[slot], cells[slot]);
+    }
+
+    private static boolean isBefore(float key, float tie, int cell, float otherKey, float otherTie, int otherCell) {
+        if (key != otherKey) {
+            return key < otherKey;
+        }
+        if (tie != otherTie) {
+            return tie < otherTie;
+        }
+        return cell < otherCell;
+    }
+
+    private void move(int from, int to) {
+        cells[to] = cells[from];
+        keys[to] = keys[from];
+        ties[to] = ties[from];
+    }
+}
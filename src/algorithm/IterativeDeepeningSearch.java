@@ -0,0 +1,236 @@
+package algorithm;
+
+import model.GridModel;
+import java.util.Arrays;
+
+/**
+ * Memory-bounded IDA* for grids too large for a per-cell workspace.
+ * Each iteration is a depth-first search that prunes cells whose f-score
+ * exceeds a threshold, which then rises to the smallest f-score that was
+ * pruned, so the first path found is optimal. Every iteration starts again
+ * from the start cell, so the search is slowest where the path detours far
+ * from the heuristic, as in mazes.
+ * Instead of per-cell arrays the search keeps a fixed-size transposition
+ * table of the best g-score seen per cell, which stops it from re-entering
+ * cells it already reached as cheaply. When the table is full, entries are
+ * overwritten: the search then revisits more cells but stays correct, so it
+ * slows down rather than running out of memory, although the revisits grow
+ * quickly once the table is much smaller than the region searched.
+ * The depth-first stack is limited to the same number of entries. A branch
+ * cut by that limit could hide a cheaper path, so once the limit is reached
+ * the search gives up with a result that {@linkplain SearchResult#isLimitReached()
+ * reports the limit}, rather than a path that may not be the cheapest.
+ */
+public class IterativeDeepeningSearch implements SearchEngine {
+    private static final int[] D_ROW = {0, 1, 0, -1};
+    private static final int[] D_COL = {1, 0, -1, 0};
+    private static final int HASH_MULTIPLIER = 0x9E3779B1;
+
+    private final GridModel grid;
+    private final int width;
+    private final int height;
+    private final Heuristic heuristic;
+    private final int maxStoredNodes;
+
+    /**
+     * Creates a new memory-bounded search for a grid.
+     *
+     * @param grid The grid to search
+     * @param heuristic The admissible, consistent estimate of the remaining cost
+     * @param maxStoredNodes The most cells the transposition table and the stack may each hold
+     */
+    public IterativeDeepeningSearch(GridModel grid, Heuristic heuristic, int maxStoredNodes) {
+        if (maxStoredNodes < 1) {
+            throw new IllegalArgumentException("Node limit must be positive: " + maxStoredNodes);
+        }
+        this.grid = grid;
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.heuristic = heuristic;
+        this.maxStoredNodes = maxStoredNodes;
+    }
+
+    /**
+     * Searches for a path between two cells. The observer sees the expansions
+     * of every iteration, and the explored count covers all of them.
+     *
+     * @param start The starting cell index
+     * @param goal The ending cell index
+     * @param workspace Unused, may be null; the search keeps its own bounded state
+     * @param observer The receiver of the search events; a push is a cell entering the stack
+     * @return The search result, with no path if none exists or the stack limit was reached,
+     *         which the result reports
+     */
+    @Override
+    public SearchResult search(int start, int goal, SearchWorkspace workspace, SearchObserver observer) {
+        TranspositionTable table = new TranspositionTable(maxStoredNodes, grid.getCellCount());
+        int stackLimit = Math.min(maxStoredNodes, grid.getCellCount());
+        int[] stackCells = new int[Math.min(stackLimit, 64)];
+        float[] stackG = new float[stackCells.length];
+        byte[] stackDirections = new byte[stackCells.length];
+
+        if (grid.isBlocked(goal)) {
+            return new SearchResult(width, new int[0], Float.POSITIVE_INFINITY, 0);
+        }
+        int goalRow = goal / width;
+        int goalCol = goal % width;
+        float threshold = heuristic.estimate(start / width, start % width, goalRow, goalCol);
+        long evaluations = 1;
+        long expansions = 0;
+
+        while (true) {
+            table.nextIteration();
+            float nextThreshold = Float.POSITIVE_INFINITY;
+            table.store(start, 0);
+            stackCells[0] = start;
+            stackG[0] = 0;
+            stackDirections[0] = 0;
+            observer.onPush(start);
+            int depth = 1;
+
+            while (depth > 0) {
+                int top = depth - 1;
+                int current = stackCells[top];
+                int direction = stackDirections[top];
+                if (direction == 0) {
+                    if (current == goal) {
+                        observer.onGoal(goal);
+                        return new SearchResult(width, pathFromStack(stackCells, depth), stackG[top], expansions, evaluations);
+                    }
+                    expansions++;
+                    observer.onExpand(current);
+                }
+                if (direction == 4) {
+                    depth--;
+                    continue;
+                }
+                stackDirections[top]++;
+
+                int newRow = current / width + D_ROW[direction];
+                int newCol = current % width + D_COL[direction];
+                if (newRow < 0 || newRow >= height || newCol < 0 || newCol >= width) {
+                    continue;
+                }
+                int neighbor = newRow * width + newCol;
+                if (grid.isBlocked(neighbor)) {
+                    continue;
+                }
+                float g = stackG[top] + grid.getCost(neighbor);
+                float f = g + heuristic.estimate(newRow, newCol, goalRow, goalCol);
+                evaluations++;
+                if (f > threshold) {
+                    nextThreshold = Math.min(nextThreshold, f);
+                    continue;
+                }
+                if (depth == stackLimit) {
+                    // Any path found from here on might not be the cheapest
+                    return SearchResult.limitReached(width, expansions, evaluations);
+                }
+                // Also cuts cycles, since a cell on the stack was stored with a lower g-score
+                if (!table.store(neighbor, g)) {
+                    continue;
+                }
+                if (depth == stackCells.length) {
+                    int capacity = (int) Math.min(stackLimit, 2L * depth);
+                    stackCells = Arrays.copyOf(stackCells, capacity);
+                    stackG = Arrays.copyOf(stackG, capacity);
+                    stackDirections = Arrays.copyOf(stackDirections, capacity);
+                }
+                stackCells[depth] = neighbor;
+                stackG[depth] = g;
+                stackDirections[depth] = 0;
+                depth++;
+                observer.onPush(neighbor);
+            }
+
+            if (nextThreshold == Float.POSITIVE_INFINITY) {
+                return new SearchResult(width, new int[0], Float.POSITIVE_INFINITY, expansions, evaluations);
+            }
+            threshold = nextThreshold;
+        }
+    }
+
+    /**
+     * Copies the stack into a path ordered from the goal back to the start.
+     */
+    private static int[] pathFromStack(int[] stackCells, int depth) {
+        int[] path = new int[depth];
+        for (int i = 0; i < depth; i++) {
+            path[i] = stackCells[depth - 1 - i];
+        }
+        return path;
+    }
+
+    /**
+     * Table of the lowest g-score reached per cell in the current iteration.
+     * Entries are stamped with the iteration, so starting a new one does not clear the table.
+     * If the limit allows an entry per cell, cells index the table directly and never collide.
+     * Otherwise each cell hashes to a bucket of two entries: the first keeps the
+     * cell closest to the start, whose subtree is the most expensive to search
+     * again, and the second takes whatever was stored last.
+     */
+    private static final class TranspositionTable {
+        private final int[] cells;
+        private final float[] g;
+        private final int[] iterations;
+        private final boolean direct;
+        private final int shift;
+        private int iteration;
+
+        TranspositionTable(int maxEntries, int cellCount) {
+            this.direct = maxEntries >= cellCount;
+            int capacity = direct ? cellCount : Math.max(2, Integer.highestOneBit(maxEntries));
+            this.cells = new int[capacity];
+            this.g = new float[capacity];
+            this.iterations = new int[capacity];
+            // Fibonacci hashing takes the bucket from the well-mixed high bits of the product
+            this.shift = 33 - Integer.numberOfTrailingZeros(capacity);
+        }
+
+        void nextIteration() {
+            iteration++;
+        }
+
+        /**
+         * Records a g-score unless the cell was already reached at least as cheaply.
+         *
+         * @return True if the cell should be searched from
+         */
+        boolean store(int cell, float cost) {
+            if (direct) {
+                if (iterations[cell] == iteration && g[cell] <= cost) {
+                    return false;
+                }
+                put(cell, cell, cost);
+                return true;
+            }
+
+            int first = shift == 32 ? 0 : ((cell * HASH_MULTIPLIER) >>> shift) << 1;
+            for (int slot = first; slot <= first + 1; slot++) {
+                if (iterations[slot] == iteration && cells[slot] == cell) {
+                    if (g[slot] <= cost) {
+                        return false;
+                    }
+                    g[slot] = cost;
+                    return true;
+                }
+            }
+            // Losing an entry only costs a revisit of the cell, never a wrong answer
+            if (iterations[first] != iteration || cost < g[first]) {
+                if (iterations[first] == iteration) {
+                    put(first + 1, cells[first], g[first]);
+                }
+                put(first, cell, cost);
+            } else {
+                put(first + 1, cell, cost);
+            }
+            return true;
+        }
+
+        private void put(int slot, int cell, float cost) {
+            cells[slot] = cell;
+            g[slot] = cost;
+            iterations[slot] = iteration;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package algorithm;
+
+import model.GridModel;
+import util.IntList;
+
+/**
+ * Jump Point Search for uniform-cost grids.
+ * Instead of pushing every neighbor, the search scans in straight (and, when
+ * diagonal moves are allowed, diagonal) lines and only stops at jump points:
+ * cells with a forced neighbor that no other symmetric path could reach as
+ * cheaply. Only jump points enter the open set and the exploration list, and
+ * the returned path is filled back in cell by cell between them.
+ * Diagonal moves are never allowed to cut a corner next to a barrier.
+ */
+public class JumpPointSearch implements SearchEngine {
+    private static final float DIAGONAL_COST = (float) Math.sqrt(2);
+
+    private final GridModel grid;
+    private final int width;
+    private final int height;
+    private final boolean allowDiagonal;
+
+    /**
+     * Creates a new jump point search for a grid.
+     *
+     * @param grid The grid to search
+     * @param allowDiagonal True for 8-connected movement, false for 4-connected
+     */
+    public JumpPointSearch(GridModel grid, boolean allowDiagonal) {
+        this.grid = grid;
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.allowDiagonal = allowDiagonal;
+    }
+
+    /**
+     * Searches for a path between two cells.
+     *
+     * @param start The starting cell index
+     * @param goal The ending cell index
+     * @param workspace The scratch state to use, sized for this grid
+     * @param observer The receiver of the search events, which only ever sees jump points
+     * @return The search result
+     */
+    @Override
+    public SearchResult search(int start, int goal, SearchWorkspace workspace, SearchObserver observer) {
+        workspace.begin();
+        OpenSet openSet = workspace.getOpenSet(OpenSetType.INDEXED_DARY_HEAP);
+        long expansions = 0;
+        int[] neighbors = new int[8];
+
+        workspace.reach(start, 0, -1);
+        float startH = heuristic(start, goal);
+        openSet.push(start, startH, startH);
+        observer.onPush(start);
+
+        while (!openSet.isEmpty()) {
+            int current = openSet.pop();
+            workspace.close(current);
+            expansions++;
+            observer.onExpand(current);
+
+            if (current == goal) {
+                observer.onGoal(goal);
+                return new SearchResult(width, expandPath(workspace.reconstructPath(goal)), workspace.getG(goal), expansions);
+            }
+
+            int row = current / width;
+            int col = current % width;
+            float currentG = workspace.getG(current);
+            int neighborCount = findNeighbors(current, workspace.getParent(current), neighbors);
+            for (int i = 0; i < neighborCount; i++) {
+                int neighborRow = neighbors[i] / width;
+                int neighborCol = neighbors[i] % width;
+                int jumpPoint = jump(neighborRow, neighborCol,
+                        neighborRow - row, neighborCol - col, goal);
+                if (jumpPoint < 0 || workspace.isClosed(jumpPoint)) {
+                    continue;
+                }
+
+                float tentativeG = currentG + distance(current, jumpPoint);
+                if (tentativeG < workspace.getG(jumpPoint)) {
+                    float h = heuristic(jumpPoint, goal);
+                    workspace.reach(jumpPoint, tentativeG, current);
+                    openSet.push(jumpPoint, tentativeG + h, h);
+                    observer.onPush(jumpPoint);
+                }
+            }
+        }
+
+        return new SearchResult(width, new int[0], Float.POSITIVE_INFINITY, expansions);
+    }
+
+    /**
+     * Collects the neighbors worth scanning from a cell, pruned by the direction it was reached from.
+     *
+     * @param cell The cell being expanded
+     * @param parent The jump point it was reached from, or -1 for the start
+     * @param neighbors Output buffer for the neighbor cells
+     * @return The number of neighbors written
+     */
+    private int findNeighbors(int cell, int parent, int[] neighbors) {
+        int row = cell / width;
+        int col = cell % width;
+        int count = 0;
+
+        if (parent < 0) {
+            for (int dRow = -1; dRow <= 1; dRow++) {
+                for (int dCol = -1; dCol <= 1; dCol++) {
+                    if (dRow == 0 && dCol == 0) {
+                        continue;
+                    }
+                    if (dRow != 0 && dCol != 0 && !(allowDiagonal
+                            && isWalkable(row + dRow, col) && isWalkable(row, col + dCol))) {
+                        continue;
+                    }
+                    if (isWalkable(row + dRow, col + dCol)) {
+                        neighbors[count++] = (row + dRow) * width + col + dCol;
+                    }
+                }
+            }
+            return count;
+        }
+
+        int dRow = Integer.signum(row - parent / width);
+        int dCol = Integer.signum(col - parent % width);
+
+        if (dRow != 0 && dCol != 0) {
+            boolean canMoveVertically = isWalkable(row + dRow, col);
+            boolean canMoveHorizontally = isWalkable(row, col + dCol);
+            if (canMoveVertically) {
+                neighbors[count++] = (row + dRow) * width + col;
+            }
+            if (canMoveHorizontally) {
+                neighbors[count++] = row * width + col + dCol;
+            }
+            if (canMoveVertically && canMoveHorizontally && isWalkable(row + dRow, col + dCol)) {
+                neighbors[count++] = (row + dRow) * width + col + dCol;
+            }
+        } else if (dCol != 0) {
+            boolean canMoveAhead = isWalkable(row, col + dCol);
+            boolean canMoveUp = isWalkable(row - 1, col);
+            boolean canMoveDown = isWalkable(row + 1, col);
+            if (canMoveAhead) {
+                neighbors[count++] = row * width + col + dCol;
+                if (allowDiagonal && canMoveUp && isWalkable(row - 1, col + dCol)) {
+                    neighbors[count++] = (row - 1) * width + col + dCol;
+                }
+                if (allowDiagonal && canMoveDown && isWalkable(row + 1, col + dCol)) {
+                    neighbors[count++] = (row + 1) * width + col + dCol;
+                }
+            }
+            if (canMoveUp) {
+                neighbors[count++] = (row - 1) * width + col;
+            }
+            if (canMoveDown) {
+                neighbors[count++] = (row + 1) * width + col;
+            }
+        } else {
+            boolean canMoveAhead = isWalkable(row + dRow, col);
+            boolean canMoveLeft = isWalkable(row, col - 1);
+            boolean canMoveRight = isWalkable(row, col + 1);
+            if (canMoveAhead) {
+                neighbors[count++] = (row + dRow) * width + col;
+                if (allowDiagonal && canMoveLeft && isWalkable(row + dRow, col - 1)) {
+                    neighbors[count++] = (row + dRow) * width + col - 1;
+                }
+                if (allowDiagonal && canMoveRight && isWalkable(row + dRow, col + 1)) {
+                    neighbors[count++] = (row + dRow) * width + col + 1;
+                }
+            }
+            if (canMoveLeft) {
+                neighbors[count++] = row * width + col - 1;
+            }
+            if (canMoveRight) {
+                neighbors[count++] = row * width + col + 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Scans from a cell in one direction until a jump point, a barrier or the grid edge.
+     * Straight scans never recurse, and diagonal scans only probe straight ones,
+     * so the call depth stays bounded on any grid size.
+     *
+     * @param row The row to start scanning from
+     * @param col The column to start scanning from
+     * @param dRow The row step (-1, 0 or 1)
+     * @param dCol The column step (-1, 0 or 1)
+     * @param goal The goal cell, which always counts as a jump point
+     * @return The jump point cell, or -1 if the scan hit a dead end
+     */
+    private int jump(int row, int col, int dRow, int dCol, int goal) {
+        while (isWalkable(row, col)) {
+            int cell = row * width + col;
+            if (cell == goal) {
+                return cell;
+            }
+
+            if (dRow != 0 && dCol != 0) {
+                if (jump(row, col + dCol, 0, dCol, goal) >= 0 || jump(row + dRow, col, dRow, 0, goal) >= 0) {
+                    return cell;
+                }
+                // Moving on diagonally needs both orthogonal cells open
+                if (!isWalkable(row + dRow, col) || !isWalkable(row, col + dCol)) {
+                    return -1;
+                }
+            } else if (dCol != 0) {
+                if ((isWalkable(row - 1, col) && !isWalkable(row - 1, col - dCol))
+                        || (isWalkable(row + 1, col) && !isWalkable(row + 1, col - dCol))) {
+                    return cell;
+                }
+            } else {
+                if ((isWalkable(row, col - 1) && !isWalkable(row - dRow, col - 1))
+                        || (isWalkable(row, col + 1) && !isWalkable(row - dRow, col + 1))) {
+                    return cell;
+                }
+                // Without diagonals, turns only happen at cells a horizontal scan can leave from
+                if (!allowDiagonal && (jump(row, col + 1, 0, 1, goal) >= 0 || jump(row, col - 1, 0, -1, goal) >= 0)) {
+                    return cell;
+                }
+            }
+
+            row += dRow;
+            col += dCol;
+        }
+        return -1;
+    }
+
+    /**
+     * Fills in the cells between consecutive jump points.
+     *
+     * @param jumpPoints The jump points from the goal back to the start
+     * @return Every cell on the path from the goal back to the start
+     */
+    private int[] expandPath(int[] jumpPoints) {
+        IntList path = new IntList(jumpPoints.length * 4);
+        path.add(jumpPoints[0]);
+        for (int i = 1; i < jumpPoints.length; i++) {
+            int row = jumpPoints[i - 1] / width;
+            int col = jumpPoints[i - 1] % width;
+            int toRow = jumpPoints[i] / width;
+            int toCol = jumpPoints[i] % width;
+            int dRow = Integer.signum(toRow - row);
+            int dCol = Integer.signum(toCol - col);
+            while (row != toRow || col != toCol) {
+                row += dRow;
+                col += dCol;
+                path.add(row * width + col);
+            }
+        }
+        return path.toArray();
+    }
+
+    private boolean isWalkable(int row, int col) {
+        return row >= 0 && row < height && col >= 0 && col < width && !grid.isBlocked(row * width + col);
+    }
+
+    /**
+     * Calculates the cost of moving between two cells on a straight or diagonal line.
+     */
+    private float distance(int from, int to) {
+        int dRow = Math.abs(from / width - to / width);
+        int dCol = Math.abs(from % width - to % width);
+        int diagonal = Math.min(dRow, dCol);
+        return diagonal * DIAGONAL_COST + (Math.max(dRow, dCol) - diagonal);
+    }
+
+    /**
+     * Calculates the octile (8-connected) or Manhattan (4-connected) distance to the goal.
+     */
+    private float heuristic(int cell, int goal) {
+        int dRow = Math.abs(cell / width - goal / width);
+        int dCol = Math.abs(cell % width - goal % width);
+        if (!allowDiagonal) {
+            return dRow + dCol;
+        }
+        int diagonal = Math.min(dRow, dCol);
+        return diagonal * DIAGONAL_COST + (dRow + dCol - 2 * diagonal);
+    }
+}
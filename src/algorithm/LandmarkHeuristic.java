@@ -0,0 +1,313 @@
+package algorithm;
+
+import model.GridListener;
+import model.GridModel;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.stream.IntStream;
+
+/**
+ * ALT (A*, landmarks, triangle inequality) heuristic backed by precomputed distance tables.
+ * A few landmark cells are spread around the edge of the grid and a breadth-first
+ * search from each one records its distance to every cell. For any landmark L the
+ * triangle inequality gives |d(L, goal) - d(L, cell)| as a lower bound on the
+ * distance from cell to goal, which is far tighter than a geometric estimate in
+ * mazes. Tables are stored as unsigned shorts when every distance fits and as ints
+ * otherwise. Any barrier edit invalidates the tables; they are rebuilt, one
+ * landmark per worker in parallel, before the next query. Edits only mark the
+ * tables stale, without waiting for a query in progress, and a rebuild stops
+ * once the querying thread is interrupted. A rebuild replaces the tables as a
+ * whole, so a search keeps estimating from the {@link Snapshot} it prepared
+ * its goal with while another query rebuilds them.
+ */
+public class LandmarkHeuristic implements GridListener {
+    /**
+     * Estimate returned for cells that provably cannot reach the goal.
+     */
+    public static final int UNREACHABLE = -1;
+
+    private static final int COMPACT_UNREACHABLE = 0xFFFF;
+    // Cells a table search visits between checks for an interrupt, a power of two minus one
+    private static final int CANCEL_CHECK_MASK = 4095;
+
+    private final GridModel grid;
+    private final int landmarkCount;
+    private Tables tables;
+    private volatile boolean isStale = true;
+
+    /**
+     * Creates a landmark heuristic and starts tracking edits to the grid.
+     * The tables are built lazily on the first query.
+     * 
+     * @param grid The grid to estimate distances on
+     * @param landmarkCount The number of landmarks to place
+     */
+    public LandmarkHeuristic(GridModel grid, int landmarkCount) {
+        if (landmarkCount < 1) {
+            throw new IllegalArgumentException("At least one landmark is required: " + landmarkCount);
+        }
+        this.grid = grid;
+        this.landmarkCount = landmarkCount;
+        grid.addListener(this);
+    }
+
+    @Override
+    public void cellChanged(int cell) {
+        isStale = true;
+    }
+
+    @Override
+    public void gridChanged() {
+        isStale = true;
+    }
+
+    /**
+     * Looks up the landmark distances of the goal, rebuilding the tables first if the grid changed.
+     * 
+     * @param goal The goal cell
+     * @return The current tables together with the distance from each landmark to the goal
+     */
+    public synchronized Snapshot prepareGoal(int goal) {
+        Tables current = currentTables();
+        int[] goalDistances = new int[current.landmarks.length];
+        for (int l = 0; l < goalDistances.length; l++) {
+            goalDistances[l] = current.distance(l, goal);
+        }
+        return new Snapshot(current, goalDistances);
+    }
+
+    /**
+     * Estimates the distance from a cell to the goal.
+     * 
+     * @param cell The cell to estimate from
+     * @param goal The tables and goal distances from {@link #prepareGoal}
+     * @return A lower bound on the distance, or {@link #UNREACHABLE} if the goal is in another region
+     */
+    public int estimate(int cell, Snapshot goal) {
+        Tables tables = goal.tables;
+        int[] goalDistances = goal.goalDistances;
+        int best = 0;
+        for (int l = 0; l < goalDistances.length; l++) {
+            int toGoal = goalDistances[l];
+            int toCell = tables.distance(l, cell);
+            if (toGoal < 0 || toCell < 0) {
+                if ((toGoal < 0) != (toCell < 0)) {
+                    // One of them is connected to this landmark and the other is not
+                    return UNREACHABLE;
+                }
+                continue;
+            }
+            best = Math.max(best, Math.abs(toGoal - toCell));
+        }
+        return best;
+    }
+
+    /**
+     * Gets the landmark cells, rebuilding the tables first if the grid changed.
+     * 
+     * @return A copy of the landmark cell indices
+     */
+    public synchronized int[] getLandmarks() {
+        int[] landmarks = currentTables().landmarks;
+        return Arrays.copyOf(landmarks, landmarks.length);
+    }
+
+    /**
+     * Gets the tables, rebuilding them first if the grid changed.
+     *
+     * @throws CancellationException If the thread is interrupted during the rebuild
+     */
+    private Tables currentTables() {
+        if (isStale) {
+            // Cleared first, so an edit made during the rebuild marks the new tables stale again
+            isStale = false;
+            try {
+                tables = rebuild();
+            } catch (RuntimeException ex) {
+                isStale = true;
+                throw ex;
+            }
+        }
+        return tables;
+    }
+
+    private Tables rebuild() {
+        int[] landmarks = placeLandmarks();
+        int[][] tables = new int[landmarks.length][];
+        Thread caller = Thread.currentThread();
+        IntStream.range(0, landmarks.length).parallel()
+                .forEach(l -> tables[l] = breadthFirst(landmarks[l], caller));
+
+        int maxDistance = 0;
+        for (int[] table : tables) {
+            for (int value : table) {
+                maxDistance = Math.max(maxDistance, value);
+            }
+        }
+        if (maxDistance < COMPACT_UNREACHABLE) {
+            short[][] compactDistances = new short[tables.length][];
+            for (int l = 0; l < tables.length; l++) {
+                short[] compact = new short[tables[l].length];
+                for (int cell = 0; cell < compact.length; cell++) {
+                    compact[cell] = (short) (tables[l][cell] < 0 ? COMPACT_UNREACHABLE : tables[l][cell]);
+                }
+                compactDistances[l] = compact;
+            }
+            return new Tables(landmarks, compactDistances, null);
+        }
+        return new Tables(landmarks, null, tables);
+    }
+
+    /**
+     * Spreads the landmarks evenly around the grid edge, snapping each to the nearest free cell.
+     * Landmarks on the edge see most cells from "behind", which is where ALT bounds are tight.
+     */
+    private int[] placeLandmarks() {
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        int perimeter = Math.max(1, 2 * (width + height) - 4);
+        int[] placed = new int[landmarkCount];
+        int count = 0;
+        for (int i = 0; i < landmarkCount; i++) {
+            int position = (int) ((long) i * perimeter / landmarkCount);
+            int row;
+            int col;
+            if (position < width) {
+                row = 0;
+                col = position;
+            } else if (position < width + height - 1) {
+                row = position - width + 1;
+                col = width - 1;
+            } else if (position < 2 * width + height - 2) {
+                row = height - 1;
+                col = width - 1 - (position - width - height + 2);
+            } else {
+                row = height - 1 - (position - 2 * width - height + 3);
+                col = 0;
+            }
+            int cell = nearestFreeCell(Math.max(0, Math.min(height - 1, row)), Math.max(0, Math.min(width - 1, col)));
+            boolean isDuplicate = false;
+            for (int j = 0; j < count; j++) {
+                isDuplicate |= placed[j] == cell;
+            }
+            if (cell >= 0 && !isDuplicate) {
+                placed[count++] = cell;
+            }
+        }
+        return Arrays.copyOf(placed, count);
+    }
+
+    /**
+     * Finds the free cell closest to a position by scanning rings of growing radius.
+     * 
+     * @return The cell index, or -1 if the grid is completely blocked
+     */
+    private int nearestFreeCell(int row, int col) {
+        int maxRadius = Math.max(grid.getWidth(), grid.getHeight());
+        for (int radius = 0; radius < maxRadius; radius++) {
+            for (int dRow = -radius; dRow <= radius; dRow++) {
+                for (int dCol = -radius; dCol <= radius; dCol++) {
+                    if (Math.max(Math.abs(dRow), Math.abs(dCol)) != radius) {
+                        continue;
+                    }
+                    int r = row + dRow;
+                    int c = col + dCol;
+                    if (grid.isInBounds(r, c) && !grid.isBlocked(r, c)) {
+                        return grid.index(r, c);
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Runs a one-to-all breadth-first search from a landmark.
+     * 
+     * @param caller The thread that asked for the rebuild, whose interrupt cancels it
+     * @return The distance to every cell, or -1 for cells that cannot be reached
+     */
+    private int[] breadthFirst(int source, Thread caller) {
+        // Tasks still queued when the rebuild is cancelled should not allocate their tables first
+        if (caller.isInterrupted()) {
+            throw new CancellationException("Landmark rebuild cancelled");
+        }
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        int[] table = new int[grid.getCellCount()];
+        Arrays.fill(table, UNREACHABLE);
+        int[] queue = new int[grid.getCellCount()];
+        int head = 0;
+        int tail = 0;
+        table[source] = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            if ((head & CANCEL_CHECK_MASK) == 0 && caller.isInterrupted()) {
+                throw new CancellationException("Landmark rebuild cancelled");
+            }
+            int cell = queue[head++];
+            int row = cell / width;
+            int col = cell % width;
+            int next = table[cell] + 1;
+            if (row > 0) {
+                tail = visit(cell - width, next, table, queue, tail);
+            }
+            if (row < height - 1) {
+                tail = visit(cell + width, next, table, queue, tail);
+            }
+            if (col > 0) {
+                tail = visit(cell - 1, next, table, queue, tail);
+            }
+            if (col < width - 1) {
+                tail = visit(cell + 1, next, table, queue, tail);
+            }
+        }
+        return table;
+    }
+
+    private int visit(int cell, int distance, int[] table, int[] queue, int tail) {
+        if (table[cell] == UNREACHABLE && !grid.isBlocked(cell)) {
+            table[cell] = distance;
+            queue[tail++] = cell;
+        }
+        return tail;
+    }
+
+    /**
+     * The landmark tables of one build, never modified once built.
+     */
+    private static final class Tables {
+        private final int[] landmarks;
+        private final short[][] compactDistances;
+        private final int[][] distances;
+
+        Tables(int[] landmarks, short[][] compactDistances, int[][] distances) {
+            this.landmarks = landmarks;
+            this.compactDistances = compactDistances;
+            this.distances = distances;
+        }
+
+        int distance(int landmark, int cell) {
+            if (compactDistances != null) {
+                int value = compactDistances[landmark][cell] & 0xFFFF;
+                return value == COMPACT_UNREACHABLE ? UNREACHABLE : value;
+            }
+            return distances[landmark][cell];
+        }
+    }
+
+    /**
+     * The tables a search estimates from, with the goal's distance from each landmark.
+     * Estimates from one snapshot stay consistent even if the tables are rebuilt meanwhile.
+     */
+    public static final class Snapshot {
+        private final Tables tables;
+        private final int[] goalDistances;
+
+        private Snapshot(Tables tables, int[] goalDistances) {
+            this.tables = tables;
+            this.goalDistances = goalDistances;
+        }
+    }
+}
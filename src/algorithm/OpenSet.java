@@ -0,0 +1,33 @@
+package algorithm;
+
+/**
+ * Priority queue of cell indices used as the open set of a search.
+ * Entries are ordered by key, then by tie-breaker, then by cell index, so every
+ * implementation pops cells in the same order for the same pushes.
+ */
+public interface OpenSet {
+    /**
+     * Adds a cell, or lowers its priority if it is already queued with a worse one.
+     *
+     * @param cell The cell index
+     * @param key The primary priority (lower keys are popped first)
+     * @param tie The secondary priority used when keys are equal
+     */
+    void push(int cell, float key, float tie);
+
+    /**
+     * Removes and returns the cell with the lowest priority.
+     *
+     * @return The cell index
+     */
+    int pop();
+
+    boolean isEmpty();
+
+    int size();
+
+    /**
+     * Removes all entries.
+     */
+    void clear();
+}
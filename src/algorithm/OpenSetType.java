@@ -0,0 +1,17 @@
+package algorithm;
+
+/**
+ * Enum representing the open set implementations a search can run on.
+ */
+public enum OpenSetType {
+    /**
+     * Binary heap that re-inserts a cell when its g-score improves and
+     * skips the stale copies when they are popped.
+     */
+    BINARY_HEAP,
+    
+    /**
+     * Indexed d-ary heap that keeps one entry per cell and lowers it in place.
+     */
+    INDEXED_DARY_HEAP
+}
@@ -0,0 +1,182 @@
+package algorithm;
+
+import model.GridModel;
+
+/**
+ * Enum representing the built-in search engines the pathfinder can run.
+ */
+public enum PathAlgorithm implements SearchEngineProvider {
+    /**
+     * A* with 4-connected moves, run on a bucket queue.
+     */
+    A_STAR("A*", "Manhattan", true, true),
+    
+    /**
+     * Dijkstra's algorithm: A* without a heuristic, run on an indexed heap.
+     */
+    DIJKSTRA("Dijkstra", "None", true, true),
+    
+    /**
+     * Breadth-first search, which finds the fewest moves and assumes they all cost the same.
+     */
+    BREADTH_FIRST("Breadth-first search", "None", false, true),
+    
+    /**
+     * Greedy best-first search, which heads straight for the goal and does not guarantee the shortest path.
+     */
+    GREEDY_BEST_FIRST("Greedy best-first", "Manhattan", true, false),
+    
+    /**
+     * ARA*, which finds a quick path with an inflated heuristic and improves it until a deadline.
+     * Without a deadline it runs until the path is optimal.
+     */
+    ARA_STAR("ARA* (anytime)", "Inflated Manhattan", true, true),
+    
+    /**
+     * IDA* with a fixed-size transposition table, for grids too large for a per-cell workspace.
+     */
+    IDA_STAR("IDA* (memory-bounded)", "Manhattan", true, true),
+    
+    /**
+     * A* with landmark (ALT) lower bounds, which stay tight in mazes.
+     */
+    A_STAR_LANDMARKS("A* (landmarks)", "ALT + Manhattan", true, true),
+    
+    /**
+     * A* run from both ends at once on two threads.
+     */
+    BIDIRECTIONAL_A_STAR("Bidirectional A*", "Manhattan", true, true),
+    
+    /**
+     * D* Lite, which keeps its search between queries and repairs it after barrier edits.
+     */
+    D_STAR_LITE("D* Lite (incremental)", "Manhattan", true, true),
+    
+    /**
+     * Hierarchical A* over cached cluster entrances, for very large grids.
+     * Its cluster distances assume unit moves, and its paths are near-optimal.
+     */
+    HIERARCHICAL_A_STAR("HPA*", "Manhattan", false, false),
+    
+    /**
+     * Jump Point Search with 4-connected moves. Jumping relies on every move costing the same.
+     */
+    JUMP_POINT_SEARCH_4("JPS (4-way)", "Manhattan", false, true),
+    
+    /**
+     * Jump Point Search with 8-connected moves that never cut corners.
+     */
+    JUMP_POINT_SEARCH_8("JPS (8-way)", "Octile", false, true);
+    
+    private static final int HIERARCHICAL_CLUSTER_SIZE = 16;
+    private static final int LANDMARK_COUNT = 8;
+    // Cells the memory-bounded search may store, about 12 MB of tables
+    private static final int MEMORY_BOUNDED_NODE_LIMIT = 1 << 20;
+    
+    private final String displayName;
+    private final String heuristicName;
+    private final boolean costAware;
+    private final boolean optimal;
+    
+    PathAlgorithm(String displayName, String heuristicName, boolean costAware, boolean optimal) {
+        this.displayName = displayName;
+        this.heuristicName = heuristicName;
+        this.costAware = costAware;
+        this.optimal = optimal;
+    }
+    
+    @Override
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    @Override
+    public String getHeuristicName() {
+        return heuristicName;
+    }
+    
+    /**
+     * Checks if the algorithm honours terrain costs. The others are only valid on unit-cost grids.
+     * 
+     * @return True if the algorithm reports true path costs on weighted grids
+     */
+    @Override
+    public boolean isCostAware() {
+        return costAware;
+    }
+    
+    @Override
+    public boolean isOptimal() {
+        return optimal;
+    }
+    
+    /**
+     * Checks if the engine uses the pathfinder's workspace. Bidirectional A*,
+     * D* Lite and HPA* keep their own state, and IDA* keeps bounded tables instead.
+     * 
+     * @return True if the engine needs a workspace
+     */
+    @Override
+    public boolean needsWorkspace() {
+        switch (this) {
+            case IDA_STAR:
+            case BIDIRECTIONAL_A_STAR:
+            case D_STAR_LITE:
+            case HIERARCHICAL_A_STAR:
+                return false;
+            default:
+                return true;
+        }
+    }
+    
+    /**
+     * Creates the engine for a grid. Engines that keep state between queries
+     * (the landmark tables, the hierarchy and the D* Lite search tree) listen
+     * to the grid from then on and update that state after barrier edits.
+     * 
+     * @param grid The grid to search
+     * @return The engine
+     */
+    @Override
+    public SearchEngine create(GridModel grid) {
+        switch (this) {
+            case DIJKSTRA:
+                return new AStarSearch(grid, OpenSetType.INDEXED_DARY_HEAP, Heuristic.ZERO);
+            case BREADTH_FIRST:
+                return new BreadthFirstSearch(grid);
+            case GREEDY_BEST_FIRST:
+                return new GreedyBestFirstSearch(grid, Heuristic.MANHATTAN);
+            case ARA_STAR:
+                return new AnytimeSearch(grid);
+            case IDA_STAR:
+                return new IterativeDeepeningSearch(grid, Heuristic.MANHATTAN, MEMORY_BOUNDED_NODE_LIMIT);
+            case A_STAR_LANDMARKS:
+                return new DialSearch(grid, new LandmarkHeuristic(grid, LANDMARK_COUNT));
+            case BIDIRECTIONAL_A_STAR: {
+                // The two halves keep their own scratch state, so each thread needs its own search
+                ThreadLocal<BidirectionalAStar> searches = ThreadLocal.withInitial(() -> new BidirectionalAStar(grid));
+                return (start, goal, workspace, observer) -> searches.get().search(start, goal, observer);
+            }
+            case D_STAR_LITE: {
+                DStarLite search = new DStarLite(grid);
+                return (start, goal, workspace, observer) -> search.search(start, goal, observer);
+            }
+            case HIERARCHICAL_A_STAR: {
+                HierarchicalSearch search = new HierarchicalSearch(grid, HIERARCHICAL_CLUSTER_SIZE);
+                return (start, goal, workspace, observer) -> search.search(start, goal, observer);
+            }
+            case JUMP_POINT_SEARCH_4:
+                return new JumpPointSearch(grid, false);
+            case JUMP_POINT_SEARCH_8:
+                return new JumpPointSearch(grid, true);
+            case A_STAR:
+            default:
+                return new DialSearch(grid);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,154 @@
+package algorithm;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Bounded least-recently-used cache of search results.
+ * Entries are keyed by the grid version stamp as well as the query, so a
+ * barrier edit makes every older entry unreachable at once; those entries are
+ * never flushed explicitly but age out as new results push them past the
+ * memory budget.
+ * All methods are synchronized so batch workers can share one cache.
+ */
+public class PathCache {
+    private final long budgetBytes;
+    private final LinkedHashMap<Key, SearchResult> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long usedBytes;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Creates a new empty cache.
+     *
+     * @param budgetBytes The approximate memory the cached results may hold, or 0 to disable caching
+     */
+    public PathCache(long budgetBytes) {
+        if (budgetBytes < 0) {
+            throw new IllegalArgumentException("Cache budget must not be negative: " + budgetBytes);
+        }
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * Looks up a result and marks it as most recently used.
+     *
+     * @param version The grid version the result must have been computed on
+     * @param algorithm The engine that computed the result
+     * @param start The starting cell index
+     * @param end The ending cell index
+     * @return The cached result, or null on a miss
+     */
+    public synchronized SearchResult get(long version, SearchEngineProvider algorithm, int start, int end) {
+        SearchResult result = entries.get(new Key(version, algorithm, start, end));
+        if (result != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return result;
+    }
+
+    /**
+     * Stores a result, evicting the least recently used entries until it fits the budget.
+     * Results larger than the whole budget are not cached.
+     *
+     * @param version The grid version the result was computed on
+     * @param algorithm The engine that computed the result
+     * @param start The starting cell index
+     * @param end The ending cell index
+     * @param result The result to cache
+     */
+    public synchronized void put(long version, SearchEngineProvider algorithm, int start, int end, SearchResult result) {
+        long size = result.getRetainedBytes();
+        if (size > budgetBytes) {
+            return;
+        }
+        SearchResult previous = entries.put(new Key(version, algorithm, start, end), result);
+        if (previous != null) {
+            usedBytes -= previous.getRetainedBytes();
+        }
+        usedBytes += size;
+
+        Iterator<SearchResult> eldest = entries.values().iterator();
+        while (usedBytes > budgetBytes) {
+            usedBytes -= eldest.next().getRetainedBytes();
+            eldest.remove();
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Removes all entries. The counters are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        usedBytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Calculates the fraction of lookups that were answered from the cache.
+     *
+     * @return The hit rate between 0 and 1
+     */
+    public synchronized double getHitRate() {
+        long lookups = hitCount + missCount;
+        return lookups > 0 ? (double) hitCount / lookups : 0;
+    }
+
+    private static final class Key {
+        private final long version;
+        private final SearchEngineProvider algorithm;
+        private final int start;
+        private final int end;
+
+        Key(long version, SearchEngineProvider algorithm, int start, int end) {
+            this.version = version;
+            this.algorithm = algorithm;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return version == other.version && algorithm == other.algorithm
+                    && start == other.start && end == other.end;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = Long.hashCode(version);
+            hash = 31 * hash + algorithm.hashCode();
+            hash = 31 * hash + start;
+            return 31 * hash + end;
+        }
+    }
+}
@@ -1,117 +1,396 @@
 package algorithm;
 
-import model.Node;
+import model.GridModel;
 
 import java.awt.Point;
-import java.util.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
 
 /**
- * Implements various pathfinding algorithms for grid-based navigation.
- * Currently supports A* algorithm.
+ * Runs the search engines of a {@link SearchEngineRegistry} for grid-based navigation.
+ * The standard registry holds the {@link PathAlgorithm}s: A* (optionally with
+ * landmark heuristics), anytime ARA*, memory-bounded IDA*, Dijkstra,
+ * breadth-first and greedy best-first search, bidirectional A*, incremental
+ * D* Lite, hierarchical A* and 4- or 8-connected Jump Point Search. Each engine is created on its first query and then shares
+ * this pathfinder's grid and per-thread workspaces with the others.
+ * A query whose start or end is a barrier has no path, whichever engine answers it.
  */
 public class PathFinder {
-    private final int gridSize;
-    private final List<Point> barriers;
+    // Queries per fork-join leaf task, large enough to amortise task overhead
+    private static final int BATCH_CHUNK_SIZE = 32;
+    private static final long DEFAULT_CACHE_BYTES = 16L << 20;
+
+    private final GridModel grid;
+    private final SearchEngineRegistry registry;
+    private final ThreadLocal<SearchWorkspace> workspaces;
+    private final Map<SearchEngineProvider, SearchEngine> engines = new ConcurrentHashMap<>();
+    private final PathCache cache;
+    private SearchEngineProvider algorithm = PathAlgorithm.A_STAR;
+
+    /**
+     * Creates a new pathfinder over the specified grid.
+     * The grid is read on every query, so barrier edits are picked up without
+     * creating a new pathfinder.
+     * 
+     * @param grid The grid holding the barrier positions
+     */
+    public PathFinder(GridModel grid) {
+        this(grid, DEFAULT_CACHE_BYTES);
+    }
+
+    /**
+     * Creates a new pathfinder with a result cache of the given size.
+     * 
+     * @param grid The grid holding the barrier positions
+     * @param cacheBudgetBytes The approximate memory cached results may hold, or 0 to disable caching
+     */
+    public PathFinder(GridModel grid, long cacheBudgetBytes) {
+        this(grid, cacheBudgetBytes, SearchEngineRegistry.standard());
+    }
+
+    /**
+     * Creates a new pathfinder that can run the engines of a registry.
+     * 
+     * @param grid The grid holding the barrier positions
+     * @param cacheBudgetBytes The approximate memory cached results may hold, or 0 to disable caching
+     * @param registry The engines to offer
+     */
+    public PathFinder(GridModel grid, long cacheBudgetBytes, SearchEngineRegistry registry) {
+        this.grid = grid;
+        this.registry = registry;
+        this.cache = new PathCache(cacheBudgetBytes);
+        this.workspaces = ThreadLocal.withInitial(() -> new SearchWorkspace(grid.getCellCount()));
+    }
+
+    /**
+     * Gets the registry listing the engines this pathfinder can run.
+     * 
+     * @return The engine registry
+     */
+    public SearchEngineRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Gets the result cache, whose counters show how often repeated queries were answered without searching.
+     * 
+     * @return The cache shared by all queries of this pathfinder
+     */
+    public PathCache getCache() {
+        return cache;
+    }
+
+    public SearchEngineProvider getAlgorithm() {
+        return algorithm;
+    }
 
     /**
-     * Creates a new pathfinder with the specified grid size and barriers.
+     * Sets the engine used by {@link #findPath} and {@link #search(Point, Point)}.
      * 
-     * @param gridSize The size of the grid (gridSize x gridSize)
-     * @param barriers List of barrier positions in the grid
+     * @param algorithm The engine to run
      */
-    public PathFinder(int gridSize, List<Point> barriers) {
-        this.gridSize = gridSize;
-        this.barriers = barriers;
+    public void setAlgorithm(SearchEngineProvider algorithm) {
+        this.algorithm = algorithm;
     }
 
     /**
-     * Executes the A* pathfinding algorithm to find a path between two points.
+     * Executes the selected pathfinding algorithm to find a path between two points.
      * 
      * @param start The starting point
      * @param end The ending point
      * @return A list containing two lists: exploration path and shortest path
      */
     public List<List<Point>> findPath(Point start, Point end) {
-        PriorityQueue<Node> openSet = new PriorityQueue<>();
-        boolean[][] visited = new boolean[gridSize][gridSize];
-        List<Point> explorationPath = new ArrayList<>();
-        List<Point> fastestPath = new ArrayList<>();
-
-        Node startNode = new Node(start.x, start.y);
-        startNode.setG(0);
-        startNode.setH(calculateHeuristic(startNode, end));
-        startNode.setF(startNode.getG() + startNode.getH());
-        openSet.add(startNode);
-
-        while (!openSet.isEmpty()) {
-            Node current = openSet.poll();
-            explorationPath.add(new Point(current.getRow(), current.getCol()));
-
-            visited[current.getRow()][current.getCol()] = true;
-
-            if (current.getRow() == end.x && current.getCol() == end.y) {
-                fastestPath = reconstructPath(current);
-                return Arrays.asList(explorationPath, fastestPath);
-            }
+        ExplorationRecorder recorder = new ExplorationRecorder();
+        SearchResult result = search(start, end, recorder);
+        return Arrays.asList(recorder.toPoints(grid.getWidth()), result.getPathPoints());
+    }
 
-            int[] dRow = {0, 1, 0, -1};
-            int[] dCol = {1, 0, -1, 0};
-            for (int i = 0; i < 4; i++) {
-                int newRow = current.getRow() + dRow[i];
-                int newCol = current.getCol() + dCol[i];
-
-                if (isValid(newRow, newCol) && !visited[newRow][newCol] && !barriers.contains(new Point(newRow, newCol))) {
-                    double tentativeG = current.getG() + 1;
-                    Node neighbor = new Node(newRow, newCol);
-                    neighbor.setG(tentativeG);
-                    neighbor.setH(calculateHeuristic(neighbor, end));
-                    neighbor.setF(neighbor.getG() + neighbor.getH());
-                    neighbor.setParent(current);
-
-                    openSet.add(neighbor);
-                    visited[newRow][newCol] = true;
+    /**
+     * Executes the selected pathfinding algorithm and returns the raw cell-indexed result.
+     * No exploration order is kept, so repeated queries are cheap and may come from the cache.
+     * 
+     * @param start The starting point
+     * @param end The ending point
+     * @return The search result
+     */
+    public SearchResult search(Point start, Point end) {
+        return search(start, end, SearchObserver.NONE);
+    }
+
+    /**
+     * Executes the selected pathfinding algorithm, streaming its events to an observer.
+     * Observed queries always run the search, so they bypass the cache.
+     * 
+     * @param start The starting point
+     * @param end The ending point
+     * @param observer The receiver of the search events
+     * @return The search result
+     */
+    public SearchResult search(Point start, Point end, SearchObserver observer) {
+        return search(grid.index(start.x, start.y), grid.index(end.x, end.y), algorithm, observer,
+                observer == SearchObserver.NONE);
+    }
+
+    /**
+     * Executes the A* pathfinding algorithm on the chosen open set implementation.
+     * 
+     * @param start The starting point
+     * @param end The ending point
+     * @param openSetType The open set implementation to run on
+     * @return The search result
+     */
+    public SearchResult search(Point start, Point end, OpenSetType openSetType) {
+        AStarSearch aStar = new AStarSearch(grid, openSetType, Heuristic.EUCLIDEAN);
+        return aStar.search(grid.index(start.x, start.y), grid.index(end.x, end.y), workspaces.get());
+    }
+
+    /**
+     * Executes the A* pathfinding algorithm with the chosen heuristic.
+     * The result records how many heuristic estimates the search computed.
+     * 
+     * @param start The starting point
+     * @param end The ending point
+     * @param heuristic The estimate of the remaining cost
+     * @return The search result
+     */
+    public SearchResult search(Point start, Point end, Heuristic heuristic) {
+        AStarSearch aStar = new AStarSearch(grid, OpenSetType.INDEXED_DARY_HEAP, heuristic);
+        return aStar.search(grid.index(start.x, start.y), grid.index(end.x, end.y), workspaces.get());
+    }
+
+    /**
+     * Checks that A* on the chosen open set finds a path of the same cost as Dijkstra's algorithm.
+     * 
+     * @param start The starting point
+     * @param end The ending point
+     * @param openSetType The open set implementation to check
+     * @return True if both searches agree on the path cost (or both find no path)
+     */
+    public boolean matchesDijkstra(Point start, Point end, OpenSetType openSetType) {
+        SearchWorkspace workspace = workspaces.get();
+        int startCell = grid.index(start.x, start.y);
+        int endCell = grid.index(end.x, end.y);
+        float aStarCost = new AStarSearch(grid, openSetType, Heuristic.EUCLIDEAN).search(startCell, endCell, workspace).getCost();
+        float dijkstraCost = new AStarSearch(grid, openSetType, Heuristic.ZERO).search(startCell, endCell, workspace).getCost();
+        return Float.compare(aStarCost, dijkstraCost) == 0;
+    }
+
+    /**
+     * Checks if the selected algorithm can be run a few expansions at a time with {@link #startSearch}.
+     * 
+     * @return True if the engine answering queries on the current grid is steppable
+     */
+    public boolean canStep() {
+        return getEngine(resolve(algorithm)) instanceof SteppableSearchEngine;
+    }
+
+    /**
+     * Starts the selected algorithm without expanding any cell, so the caller can
+     * advance it in steps and watch its events as they happen.
+     * Each search gets a workspace of its own, so it can be stepped from any
+     * thread while other queries run; its results bypass the cache.
+     * 
+     * @param start The starting point
+     * @param end The ending point
+     * @param observer The receiver of the search events, called while stepping
+     * @return The search, ready to step
+     * @throws IllegalStateException If the selected algorithm cannot be stepped
+     */
+    public StepwiseSearch startSearch(Point start, Point end, SearchObserver observer) {
+        SearchEngineProvider provider = resolve(algorithm);
+        SearchEngine engine = getEngine(provider);
+        if (!(engine instanceof SteppableSearchEngine)) {
+            throw new IllegalStateException(provider.getDisplayName() + " cannot be run in steps");
+        }
+        int startCell = grid.index(start.x, start.y);
+        int endCell = grid.index(end.x, end.y);
+        if (hasBlockedEndpoint(startCell, endCell)) {
+            return new StepwiseSearch() {
+                @Override
+                protected SearchResult advance(int maxExpansions) {
+                    return noPath();
                 }
-            }
+            };
         }
+        return ((SteppableSearchEngine) engine).start(startCell, endCell, new SearchWorkspace(grid.getCellCount()),
+                observer);
+    }
 
-        return Arrays.asList(explorationPath, fastestPath);
+    /**
+     * Runs the anytime search (ARA*) within a time budget.
+     * A first path is found quickly with an inflated heuristic and then improved
+     * until it is optimal or the budget runs out; each improvement is published
+     * to the listener as it is found. Results depend on timing, so they bypass the cache.
+     * 
+     * @param start The starting point
+     * @param end The ending point
+     * @param budgetNanos The time to spend improving the path
+     * @param listener The receiver of each improved path and its suboptimality bound, or null
+     * @param observer The receiver of the search events of every pass
+     * @return The best path found within the budget
+     */
+    public SearchResult searchAnytime(Point start, Point end, long budgetNanos, AnytimeListener listener,
+                                      SearchObserver observer) {
+        long deadline = System.nanoTime() + budgetNanos;
+        int startCell = grid.index(start.x, start.y);
+        int endCell = grid.index(end.x, end.y);
+        if (hasBlockedEndpoint(startCell, endCell)) {
+            return noPath();
+        }
+        AnytimeSearch search = (AnytimeSearch) getEngine(PathAlgorithm.ARA_STAR);
+        return search.search(startCell, endCell, workspaces.get(), observer, deadline, listener);
     }
 
     /**
-     * Calculates the Euclidean distance heuristic between a node and the end point.
+     * Runs the selected algorithm on an executor, so a caller such as the Swing
+     * event thread stays responsive during long searches.
+     * The algorithm is the one selected when this method is called. Cancelling
+     * the returned future interrupts the thread running the search, which stops
+     * at its next cancellation check: every few hundred expansions, and while
+     * HPA* clusters or landmark tables are rebuilt. Bidirectional A*, which
+     * only reports its events after searching, checks for the interrupt itself.
      * 
-     * @param node The node to calculate from
-     * @param end The end point
-     * @return The Euclidean distance
+     * @param start The starting point
+     * @param end The ending point
+     * @param observer The receiver of the search events, called on the executor's thread
+     * @param executor The executor to run the search on
+     * @return A future completed with the search result, or cancelled
+     */
+    public CompletableFuture<SearchResult> searchAsync(Point start, Point end, SearchObserver observer,
+                                                       Executor executor) {
+        SearchEngineProvider provider = algorithm;
+        int startCell = grid.index(start.x, start.y);
+        int endCell = grid.index(end.x, end.y);
+        return runAsync(checked -> search(startCell, endCell, provider, checked, observer == SearchObserver.NONE),
+                observer, executor);
+    }
+
+    /**
+     * Runs the anytime search (ARA*) on an executor; see {@link #searchAnytime} and {@link #searchAsync}.
+     * The budget starts when the search starts running.
+     * 
+     * @param start The starting point
+     * @param end The ending point
+     * @param budgetNanos The time to spend improving the path
+     * @param listener The receiver of each improved path, called on the executor's thread, or null
+     * @param observer The receiver of the search events, called on the executor's thread
+     * @param executor The executor to run the search on
+     * @return A future completed with the best path found, or cancelled
+     */
+    public CompletableFuture<SearchResult> searchAnytimeAsync(Point start, Point end, long budgetNanos,
+                                                              AnytimeListener listener, SearchObserver observer,
+                                                              Executor executor) {
+        return runAsync(checked -> searchAnytime(start, end, budgetNanos, listener, checked), observer, executor);
+    }
+
+    private static <T> CompletableFuture<T> runAsync(Function<SearchObserver, T> search, SearchObserver observer,
+                                                     Executor executor) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        CancellationCheck check = new CancellationCheck(observer, future);
+        future.whenComplete((result, failure) -> {
+            if (future.isCancelled()) {
+                check.interruptRunner();
+            }
+        });
+        executor.execute(() -> {
+            check.attachRunner();
+            try {
+                if (!future.isDone()) {
+                    future.complete(search.apply(check));
+                }
+            } catch (CancellationException ex) {
+                future.cancel(false);
+            } catch (RuntimeException | Error ex) {
+                future.completeExceptionally(ex);
+            } finally {
+                check.detachRunner();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Computes the distance and direction field from every cell towards one goal.
+     * Prefer this over many {@link #findPath} calls when many starts share the same end.
+     * 
+     * @param end The shared goal
+     * @return The flow field, a snapshot of the current barriers
+     */
+    public FlowField computeFlowField(Point end) {
+        return new FlowField(grid, grid.index(end.x, end.y));
+    }
+
+    /**
+     * Computes the flow field towards one goal on an executor; see {@link #searchAsync}.
+     * Cancelling the returned future interrupts the computation.
+     * 
+     * @param end The shared goal
+     * @param executor The executor to compute the field on
+     * @return A future completed with the flow field, or cancelled
+     */
+    public CompletableFuture<FlowField> computeFlowFieldAsync(Point end, Executor executor) {
+        return runAsync(checked -> computeFlowField(end), SearchObserver.NONE, executor);
+    }
+
+    /**
+     * Runs a batch of queries on the common fork-join pool.
+     * 
+     * @param queries The start/end pairs to answer
+     * @return The results in query order, with the batch throughput
+     * @see #findPaths(List, ForkJoinPool)
      */
-    private double calculateHeuristic(Node node, Point end) {
-        return Math.sqrt(Math.pow(node.getRow() - end.x, 2) + Math.pow(node.getCol() - end.y, 2));
+    public BatchResult findPaths(List<Query> queries) {
+        return findPaths(queries, ForkJoinPool.commonPool());
     }
 
     /**
-     * Checks if a position is valid on the grid.
+     * Runs a batch of queries spread across a fork-join pool.
+     * The algorithm selected when the batch starts is used for every query.
      * 
-     * @param row The row to check
-     * @param col The column to check
-     * @return True if the position is valid and not a barrier
+     * @param queries The start/end pairs to answer
+     * @param pool The pool to run the queries on
+     * @return The results in query order, with the batch throughput
+     * @see #findPaths(List, SearchEngineProvider, ForkJoinPool)
      */
-    private boolean isValid(int row, int col) {
-        return row >= 0 && row < gridSize && col >= 0 && col < gridSize && !barriers.contains(new Point(row, col));
+    public BatchResult findPaths(List<Query> queries, ForkJoinPool pool) {
+        return findPaths(queries, algorithm, pool);
     }
 
     /**
-     * Reconstructs the path from the end node back to the start node.
+     * Runs a batch of queries with one engine, spread across a fork-join pool.
+     * Running the same queries through several engines compares their speed
+     * and path costs on the same map.
+     * Every worker thread reuses its own search workspace, and all workers read
+     * the same grid, so the grid must not be edited while the batch runs.
      * 
-     * @param current The end node
-     * @return A list of points representing the path
+     * @param queries The start/end pairs to answer
+     * @param engine The engine to answer every query with
+     * @param pool The pool to run the queries on
+     * @return The results in query order, with the batch throughput
      */
-    private List<Point> reconstructPath(Node current) {
-        List<Point> path = new ArrayList<>();
-        while (current != null) {
-            path.add(new Point(current.getRow(), current.getCol()));
-            current = current.getParent();
+    public BatchResult findPaths(List<Query> queries, SearchEngineProvider engine, ForkJoinPool pool) {
+        int[] startCells = new int[queries.size()];
+        int[] endCells = new int[queries.size()];
+        for (int i = 0; i < startCells.length; i++) {
+            Query query = queries.get(i);
+            startCells[i] = grid.index(query.getStart().x, query.getStart().y);
+            endCells[i] = grid.index(query.getEnd().x, query.getEnd().y);
         }
-        return path;
+
+        SearchResult[] results = new SearchResult[startCells.length];
+        long startTime = System.nanoTime();
+        pool.invoke(new BatchTask(startCells, endCells, results, engine, 0, results.length));
+        long elapsedNanos = System.nanoTime() - startTime;
+        return new BatchResult(Arrays.asList(results), elapsedNanos, pool.getParallelism());
     }
 
     /**
@@ -129,8 +408,9 @@ public class PathFinder {
         int actualLength = fastestPath.size() - 1; // Subtract start node
         int theoreticalMin = Math.abs(start.x - end.x) + Math.abs(start.y - end.y);
 
+        // Diagonal moves can beat the Manhattan distance, so cap at 100
         return theoreticalMin > 0
-                ? (int) ((double) theoreticalMin / actualLength * 100)
+                ? Math.min(100, (int) ((double) theoreticalMin / actualLength * 100))
                 : 100;
     }
 
@@ -145,4 +425,179 @@ public class PathFinder {
         double explorationRatio = (double) exploredNodes / totalNodes;
         return 100 - (int) (explorationRatio * 100);
     }
+
+    /**
+     * Answers a query from the cache, or runs the search and caches its result.
+     * A result is only cached if the grid did not change while it was computed.
+     * Queries whose events are observed are not cacheable, since a cached result cannot replay them.
+     * Engines that assume unit moves fall back to A* once the grid has terrain costs.
+     */
+    private SearchResult search(int startCell, int endCell, SearchEngineProvider algorithm, SearchObserver observer,
+                                boolean cacheable) {
+        if (!cacheable) {
+            return runSearch(startCell, endCell, algorithm, observer);
+        }
+        long version = grid.getVersion();
+        SearchResult result = cache.get(version, algorithm, startCell, endCell);
+        if (result == null) {
+            result = runSearch(startCell, endCell, algorithm, observer);
+            if (grid.getVersion() == version) {
+                cache.put(version, algorithm, startCell, endCell, result);
+            }
+        }
+        return result;
+    }
+
+    private SearchResult runSearch(int startCell, int endCell, SearchEngineProvider algorithm, SearchObserver observer) {
+        if (hasBlockedEndpoint(startCell, endCell)) {
+            return noPath();
+        }
+        algorithm = resolve(algorithm);
+        return getEngine(algorithm).search(startCell, endCell, algorithm.needsWorkspace() ? workspaces.get() : null, observer);
+    }
+
+    /**
+     * Checks the one rule every engine's queries share: a path can neither start
+     * nor end on a barrier. Engines left to themselves disagree on such queries,
+     * so they are answered here before any engine sees them.
+     */
+    private boolean hasBlockedEndpoint(int startCell, int endCell) {
+        return grid.isBlocked(startCell) || grid.isBlocked(endCell);
+    }
+
+    private SearchResult noPath() {
+        return new SearchResult(grid.getWidth(), new int[0], Float.POSITIVE_INFINITY, 0);
+    }
+
+    /**
+     * Gets the provider that actually answers queries for another on the current grid.
+     */
+    private SearchEngineProvider resolve(SearchEngineProvider algorithm) {
+        return !algorithm.isCostAware() && !grid.isUniformCost() ? PathAlgorithm.A_STAR : algorithm;
+    }
+
+    /**
+     * Gets the engine for this grid, creating it on first use.
+     * 
+     * @param provider The engine to get
+     * @return The engine, shared by all threads querying this pathfinder
+     */
+    private SearchEngine getEngine(SearchEngineProvider provider) {
+        return engines.computeIfAbsent(provider, p -> p.create(grid));
+    }
+
+    /**
+     * Observer that forwards events to another and aborts the search once its future
+     * is cancelled or its thread interrupted, by throwing a {@link CancellationException}.
+     * It also tracks the thread running the search, so cancelling can interrupt
+     * the work done outside the observer's reach, such as rebuilding cached tables.
+     * Engines keep no state across queries that an abort could corrupt, except
+     * D* Lite, which reports an expansion before applying it, and the rebuilds,
+     * which leave what they did not finish for the next query.
+     */
+    private static final class CancellationCheck implements SearchObserver {
+        // Expansions between checks, a power of two minus one
+        private static final int CHECK_MASK = 255;
+
+        private final SearchObserver delegate;
+        private final CompletableFuture<?> future;
+        private int expansions;
+        private Thread runner; // Guarded by this
+
+        CancellationCheck(SearchObserver delegate, CompletableFuture<?> future) {
+            this.delegate = delegate;
+            this.future = future;
+        }
+
+        synchronized void attachRunner() {
+            runner = Thread.currentThread();
+        }
+
+        synchronized void detachRunner() {
+            runner = null;
+            // An interrupt that arrived after the search stopped checking must not hit the thread's next task
+            Thread.interrupted();
+        }
+
+        synchronized void interruptRunner() {
+            if (runner != null) {
+                runner.interrupt();
+            }
+        }
+
+        @Override
+        public void onPush(int cell) {
+            delegate.onPush(cell);
+        }
+
+        @Override
+        public void onExpand(int cell) {
+            if ((++expansions & CHECK_MASK) == 0 && (future.isCancelled() || Thread.currentThread().isInterrupted())) {
+                throw new CancellationException("Search cancelled");
+            }
+            delegate.onExpand(cell);
+        }
+
+        @Override
+        public void onGoal(int cell) {
+            delegate.onGoal(cell);
+        }
+    }
+
+    /**
+     * A start/end pair answered by {@link #findPaths}.
+     */
+    public static class Query {
+        private final Point start;
+        private final Point end;
+
+        public Query(Point start, Point end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        public Point getStart() {
+            return start;
+        }
+
+        public Point getEnd() {
+            return end;
+        }
+    }
+
+    /**
+     * Fork-join task answering a range of batch queries, split in halves down to small chunks.
+     */
+    private class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] startCells;
+        private final int[] endCells;
+        private final SearchResult[] results;
+        private final SearchEngineProvider algorithm;
+        private final int from;
+        private final int to;
+
+        BatchTask(int[] startCells, int[] endCells, SearchResult[] results, SearchEngineProvider algorithm, int from, int to) {
+            this.startCells = startCells;
+            this.endCells = endCells;
+            this.results = results;
+            this.algorithm = algorithm;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_CHUNK_SIZE) {
+                for (int i = from; i < to; i++) {
+                    results[i] = search(startCells[i], endCells[i], algorithm, SearchObserver.NONE, true);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new BatchTask(startCells, endCells, results, algorithm, from, middle),
+                    new BatchTask(startCells, endCells, results, algorithm, middle, to));
+        }
+    }
 }
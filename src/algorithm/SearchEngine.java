@@ -0,0 +1,38 @@
+package algorithm;
+
+/**
+ * A search that answers single start/end queries on one grid.
+ * Engines read per-query scratch state from the workspace they are handed
+ * rather than keeping it themselves, so one engine can serve several threads
+ * as long as each thread brings its own workspace. Engines that keep state of
+ * their own between queries must synchronize it and may ignore the workspace.
+ * Every engine reports the same statistics through {@link SearchResult}, so
+ * results from different engines can be compared directly.
+ *
+ * @see SearchEngineProvider
+ */
+public interface SearchEngine {
+    /**
+     * Searches for a path between two cells, reporting every push and expansion to an observer.
+     *
+     * @param start The starting cell index
+     * @param goal The ending cell index
+     * @param workspace The scratch state to use, sized for the engine's grid, or null if the
+     *                  engine's {@link SearchEngineProvider#needsWorkspace provider} says it needs none
+     * @param observer The receiver of the search events, or {@link SearchObserver#NONE}
+     * @return The search result
+     */
+    SearchResult search(int start, int goal, SearchWorkspace workspace, SearchObserver observer);
+
+    /**
+     * Searches for a path between two cells without observing it.
+     *
+     * @param start The starting cell index
+     * @param goal The ending cell index
+     * @param workspace The scratch state to use, as for {@link #search(int, int, SearchWorkspace, SearchObserver)}
+     * @return The search result
+     */
+    default SearchResult search(int start, int goal, SearchWorkspace workspace) {
+        return search(start, goal, workspace, SearchObserver.NONE);
+    }
+}
@@ -0,0 +1,60 @@
+package algorithm;
+
+import model.GridModel;
+
+/**
+ * Describes a {@link SearchEngine} that can be listed in a {@link SearchEngineRegistry}
+ * and created for a grid. The description is available without creating the
+ * engine, so a registry can list engines whose state is expensive to build.
+ */
+public interface SearchEngineProvider {
+    /**
+     * Gets the name shown when engines are listed.
+     *
+     * @return The engine name, unique within a registry
+     */
+    String getDisplayName();
+
+    /**
+     * Gets the name of the heuristic the engine orders its search by.
+     *
+     * @return The heuristic name
+     */
+    String getHeuristicName();
+
+    /**
+     * Checks if the engine honours terrain costs. Engines that do not are only
+     * run on unit-cost grids; the pathfinder answers with A* on weighted grids.
+     *
+     * @return True if the engine reports true path costs on weighted grids
+     */
+    boolean isCostAware();
+
+    /**
+     * Checks if the engine always returns a cheapest path on the grids it runs on.
+     *
+     * @return True if the engine is optimal
+     */
+    boolean isOptimal();
+
+    /**
+     * Checks if the engine reads its scratch state from the {@link SearchWorkspace}
+     * it is handed. Engines that do not are passed null, so no workspace
+     * (12 bytes per cell) is allocated for them.
+     *
+     * @return True if the engine needs a workspace
+     */
+    default boolean needsWorkspace() {
+        return true;
+    }
+
+    /**
+     * Creates the engine for a grid. A pathfinder calls this at most once,
+     * on the first query that needs the engine, and then shares the engine
+     * between all threads querying it.
+     *
+     * @param grid The grid to search
+     * @return The engine
+     */
+    SearchEngine create(GridModel grid);
+}
@@ -0,0 +1,64 @@
+package algorithm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ordered list of the search engines a pathfinder can run.
+ * The standard registry holds every {@link PathAlgorithm}; further engines can
+ * be registered before the registry is handed to a {@link PathFinder}.
+ */
+public class SearchEngineRegistry {
+    private final List<SearchEngineProvider> providers = new ArrayList<>();
+
+    /**
+     * Creates a registry holding every built-in algorithm, in declaration order.
+     *
+     * @return A new registry
+     */
+    public static SearchEngineRegistry standard() {
+        SearchEngineRegistry registry = new SearchEngineRegistry();
+        for (PathAlgorithm algorithm : PathAlgorithm.values()) {
+            registry.register(algorithm);
+        }
+        return registry;
+    }
+
+    /**
+     * Adds an engine to the end of the list.
+     *
+     * @param provider The engine to add
+     * @throws IllegalArgumentException If an engine with the same name is already registered
+     */
+    public synchronized void register(SearchEngineProvider provider) {
+        if (find(provider.getDisplayName()) != null) {
+            throw new IllegalArgumentException("Search engine already registered: " + provider.getDisplayName());
+        }
+        providers.add(provider);
+    }
+
+    /**
+     * Looks up an engine by name.
+     *
+     * @param displayName The name the engine is listed under
+     * @return The engine, or null if none is registered under that name
+     */
+    public synchronized SearchEngineProvider find(String displayName) {
+        for (SearchEngineProvider provider : providers) {
+            if (provider.getDisplayName().equals(displayName)) {
+                return provider;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the registered engines.
+     *
+     * @return An unmodifiable snapshot of the engines, in registration order
+     */
+    public synchronized List<SearchEngineProvider> getProviders() {
+        return Collections.unmodifiableList(new ArrayList<>(providers));
+    }
+}
@@ -0,0 +1,39 @@
+package algorithm;
+
+/**
+ * Receives the events of a search as they happen, from inside the expansion loop.
+ * Engines do not keep a trace of their own, so a search run without an observer
+ * (or with {@link #NONE}) allocates nothing per expanded cell; callers that
+ * want to replay a search attach a recorder such as {@link ExplorationRecorder}.
+ * Every method has an empty default, so observers only implement the events
+ * they need. Calls are made on the thread running the search.
+ */
+public interface SearchObserver {
+    /** Observer that ignores every event. */
+    SearchObserver NONE = new SearchObserver() {
+    };
+
+    /**
+     * Called when a cell is added to the open set, or queued again with a better score.
+     *
+     * @param cell The cell index
+     */
+    default void onPush(int cell) {
+    }
+
+    /**
+     * Called when a cell is taken from the open set and its neighbours are generated.
+     *
+     * @param cell The cell index
+     */
+    default void onExpand(int cell) {
+    }
+
+    /**
+     * Called once when the search reaches the goal; not called if no path exists.
+     *
+     * @param cell The goal cell index
+     */
+    default void onGoal(int cell) {
+    }
+}
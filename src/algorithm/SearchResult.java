@@ -0,0 +1,143 @@
+package algorithm;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Result of a grid search expressed in cell indices ({@code row * width + col}).
+ * Only the path and counters are kept; the order in which cells were explored
+ * is available to a {@link SearchObserver} while the search runs. Conversion
+ * to {@link Point} lists is only done on request, so callers that just need
+ * the cost or the raw cells never pay for the boxed representation.
+ */
+public class SearchResult {
+    private final int width;
+    private final int[] path;
+    private final float cost;
+    private final long exploredCount;
+    private final long heuristicEvaluations;
+    private final boolean isLimitReached;
+
+    /**
+     * Creates a new search result.
+     *
+     * @param width The width of the searched grid, used to decode cell indices
+     * @param path The cells of the path from the end back to the start (empty if none was found)
+     * @param cost The cost of the path, or {@code Float.POSITIVE_INFINITY} if none was found
+     * @param exploredCount The number of cell expansions
+     */
+    public SearchResult(int width, int[] path, float cost, long exploredCount) {
+        this(width, path, cost, exploredCount, 0);
+    }
+
+    /**
+     * Creates a new search result that records how often the heuristic was evaluated.
+     *
+     * @param width The width of the searched grid, used to decode cell indices
+     * @param path The cells of the path from the end back to the start (empty if none was found)
+     * @param cost The cost of the path, or {@code Float.POSITIVE_INFINITY} if none was found
+     * @param exploredCount The number of cell expansions
+     * @param heuristicEvaluations The number of heuristic estimates the search computed
+     */
+    public SearchResult(int width, int[] path, float cost, long exploredCount, long heuristicEvaluations) {
+        this(width, path, cost, exploredCount, heuristicEvaluations, false);
+    }
+
+    private SearchResult(int width, int[] path, float cost, long exploredCount, long heuristicEvaluations,
+                         boolean isLimitReached) {
+        this.width = width;
+        this.path = path;
+        this.cost = cost;
+        this.exploredCount = exploredCount;
+        this.heuristicEvaluations = heuristicEvaluations;
+        this.isLimitReached = isLimitReached;
+    }
+
+    /**
+     * Creates the result of a search that stopped at a memory limit before it
+     * could either find a path or prove that none exists.
+     *
+     * @param width The width of the searched grid
+     * @param exploredCount The number of cell expansions
+     * @param heuristicEvaluations The number of heuristic estimates the search computed
+     * @return A result without a path that reports the limit
+     */
+    static SearchResult limitReached(int width, long exploredCount, long heuristicEvaluations) {
+        return new SearchResult(width, new int[0], Float.POSITIVE_INFINITY, exploredCount, heuristicEvaluations, true);
+    }
+
+    /**
+     * Checks whether the search reached the end point.
+     *
+     * @return True if a path was found
+     */
+    public boolean isFound() {
+        return path.length > 0;
+    }
+
+    /**
+     * Checks whether the search gave up at a limit of the engine. Such a result
+     * has no path, but unlike an exhausted search it does not prove that none exists.
+     *
+     * @return True if the search stopped at a limit
+     */
+    public boolean isLimitReached() {
+        return isLimitReached;
+    }
+
+    /**
+     * Gets the path cells ordered from the end back to the start.
+     *
+     * @return A copy of the path cell indices
+     */
+    public int[] getPath() {
+        return Arrays.copyOf(path, path.length);
+    }
+
+    public float getCost() {
+        return cost;
+    }
+
+    /**
+     * Gets the number of cell expansions.
+     *
+     * @return The expansion count, capped at {@code Integer.MAX_VALUE}
+     */
+    public int getExploredCount() {
+        return (int) Math.min(exploredCount, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets the number of heuristic estimates computed, or 0 for engines that do not count them.
+     *
+     * @return The heuristic evaluation count
+     */
+    public long getHeuristicEvaluations() {
+        return heuristicEvaluations;
+    }
+
+    /**
+     * Estimates the heap memory the result holds on to, for cache budgeting.
+     *
+     * @return The approximate size in bytes
+     */
+    long getRetainedBytes() {
+        // Object header and fields, plus the path array
+        return 64L + 4L * path.length;
+    }
+
+    /**
+     * Converts the path to grid points.
+     *
+     * @return The path as (row, col) points from the end back to the start
+     */
+    public List<Point> getPathPoints() {
+        List<Point> points = new ArrayList<>(path.length);
+        for (int cell : path) {
+            points.add(new Point(cell / width, cell % width));
+        }
+        return points;
+    }
+}
@@ -0,0 +1,303 @@
+package algorithm;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Compact recording of the events of a search, for replaying an animation or saving to disk.
+ * Each event is stored as a varint holding the event kind in its two low bits
+ * and, above them, the zigzag-encoded difference from the cell of the previous
+ * event. Consecutive events of a grid search are usually neighbouring cells,
+ * so most events take one byte and nearly all the rest two, against about 40
+ * bytes per boxed {@link java.awt.Point}. A trace belongs to one search at a time.
+ */
+public class SearchTrace implements SearchObserver {
+    /** Kind of a cell added to the open set. */
+    public static final int PUSH = 0;
+    /** Kind of a cell taken from the open set and expanded. */
+    public static final int EXPAND = 1;
+    /** Kind of the goal being reached. */
+    public static final int GOAL = 2;
+
+    private static final int FILE_MAGIC = 0x53545243; // "STRC"
+    private static final int FILE_VERSION = 1;
+    private static final int KIND_BITS = 2;
+
+    private final int width;
+    private byte[] bytes;
+    private int length;
+    private int eventCount;
+    private int expansionCount;
+    private int lastCell;
+
+    /**
+     * Creates a new empty trace.
+     *
+     * @param width The width of the searched grid, used to decode cell indices
+     */
+    public SearchTrace(int width) {
+        this(width, new byte[64], 0, 0, 0);
+    }
+
+    private SearchTrace(int width, byte[] bytes, int length, int eventCount, int expansionCount) {
+        if (width < 1) {
+            throw new IllegalArgumentException("Grid width must be positive: " + width);
+        }
+        this.width = width;
+        this.bytes = bytes;
+        this.length = length;
+        this.eventCount = eventCount;
+        this.expansionCount = expansionCount;
+    }
+
+    @Override
+    public void onPush(int cell) {
+        append(PUSH, cell);
+    }
+
+    @Override
+    public void onExpand(int cell) {
+        append(EXPAND, cell);
+        expansionCount++;
+    }
+
+    @Override
+    public void onGoal(int cell) {
+        append(GOAL, cell);
+    }
+
+    private void append(int kind, int cell) {
+        int delta = cell - lastCell;
+        lastCell = cell;
+        long value = ((long) ((delta << 1) ^ (delta >> 31)) & 0xFFFFFFFFL) << KIND_BITS | kind;
+        // A 34-bit value needs at most five bytes
+        if (length + 5 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(length + 5, bytes.length * 2));
+        }
+        while (value >= 0x80) {
+            bytes[length++] = (byte) (value | 0x80);
+            value >>>= 7;
+        }
+        bytes[length++] = (byte) value;
+        eventCount++;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    public int getExpansionCount() {
+        return expansionCount;
+    }
+
+    /**
+     * Gets the size of the encoded events, which is also the size of the event data on disk.
+     *
+     * @return The number of bytes used by the events
+     */
+    public int getEncodedBytes() {
+        return length;
+    }
+
+    /**
+     * Removes all events while keeping the allocated buffer, so the trace can record another search.
+     */
+    public void clear() {
+        length = 0;
+        eventCount = 0;
+        expansionCount = 0;
+        lastCell = 0;
+    }
+
+    /**
+     * Starts reading the events from the beginning.
+     * Readers see the events recorded so far and are not thread-safe.
+     *
+     * @return A reader positioned before the first event
+     */
+    public Reader reader() {
+        return new Reader();
+    }
+
+    /**
+     * Passes every recorded event to an observer, in order.
+     *
+     * @param observer The receiver of the events
+     */
+    public void replay(SearchObserver observer) {
+        Reader reader = reader();
+        while (reader.next()) {
+            dispatch(reader, observer);
+        }
+    }
+
+    /**
+     * Replays the recorded events as a search that can be stepped like a live one,
+     * so an animation can drive a recording and a {@link StepwiseSearch} the same way.
+     *
+     * @param observer The receiver of the replayed events
+     * @param result The result of the recorded search, returned once every event was replayed
+     * @return The replay, ready to step
+     */
+    public StepwiseSearch replayInSteps(SearchObserver observer, SearchResult result) {
+        Reader reader = reader();
+        return new StepwiseSearch() {
+            @Override
+            protected SearchResult advance(int maxExpansions) {
+                int budget = maxExpansions;
+                while (reader.next()) {
+                    if (dispatch(reader, observer) && --budget == 0) {
+                        return null;
+                    }
+                }
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Passes the current event of a reader to an observer.
+     *
+     * @return True if the event was an expansion
+     */
+    private static boolean dispatch(Reader reader, SearchObserver observer) {
+        switch (reader.getKind()) {
+            case PUSH:
+                observer.onPush(reader.getCell());
+                return false;
+            case EXPAND:
+                observer.onExpand(reader.getCell());
+                return true;
+            default:
+                observer.onGoal(reader.getCell());
+                return false;
+        }
+    }
+
+    /**
+     * Writes the trace in its encoded form. The stream is not closed.
+     *
+     * @param out The stream to write to
+     * @throws IOException If the stream cannot be written
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(FILE_MAGIC);
+        data.writeByte(FILE_VERSION);
+        data.writeInt(width);
+        data.writeInt(eventCount);
+        data.writeInt(expansionCount);
+        data.writeInt(length);
+        data.write(bytes, 0, length);
+        data.flush();
+    }
+
+    /**
+     * Reads a trace written by {@link #writeTo}. The stream is not closed.
+     *
+     * @param in The stream to read from
+     * @return The trace, ready to replay or to record further events
+     * @throws IOException If the stream cannot be read or does not hold a trace
+     */
+    public static SearchTrace readFrom(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != FILE_MAGIC) {
+            throw new IOException("Not a search trace");
+        }
+        int version = data.readUnsignedByte();
+        if (version != FILE_VERSION) {
+            throw new IOException("Unsupported search trace version: " + version);
+        }
+        int width = data.readInt();
+        int eventCount = data.readInt();
+        int expansionCount = data.readInt();
+        int length = data.readInt();
+        if (width < 1 || eventCount < 0 || expansionCount < 0 || length < 0) {
+            throw new IOException("Corrupt search trace header");
+        }
+        byte[] bytes = new byte[Math.max(length, 64)];
+        data.readFully(bytes, 0, length);
+        SearchTrace trace = new SearchTrace(width, bytes, length, eventCount, expansionCount);
+        // Later events are encoded relative to the last recorded cell
+        Reader reader = trace.reader();
+        while (reader.next()) {
+            trace.lastCell = reader.getCell();
+        }
+        return trace;
+    }
+
+    /**
+     * Cursor over the events of a trace, decoding one event per call to {@link #next()}.
+     */
+    public final class Reader {
+        private int offset;
+        private int index;
+        private int kind;
+        private int cell;
+
+        private Reader() {
+        }
+
+        /**
+         * Moves to the next event.
+         *
+         * @return True if there was another event, false at the end of the trace
+         */
+        public boolean next() {
+            if (offset >= length) {
+                return false;
+            }
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[offset++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            kind = (int) value & ((1 << KIND_BITS) - 1);
+            int zigzag = (int) (value >>> KIND_BITS);
+            cell += (zigzag >>> 1) ^ -(zigzag & 1);
+            index++;
+            return true;
+        }
+
+        /**
+         * Gets the kind of the current event.
+         *
+         * @return {@link #PUSH}, {@link #EXPAND} or {@link #GOAL}
+         */
+        public int getKind() {
+            return kind;
+        }
+
+        public int getCell() {
+            return cell;
+        }
+
+        public int getRow() {
+            return cell / width;
+        }
+
+        public int getCol() {
+            return cell % width;
+        }
+
+        /**
+         * Gets the number of events read so far.
+         *
+         * @return The position of the reader, from 0 before the first event
+         */
+        public int getIndex() {
+            return index;
+        }
+    }
+}
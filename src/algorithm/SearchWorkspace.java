@@ -0,0 +1,200 @@
+package algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Per-cell scratch state reused across searches on grids of one size.
+ * Every entry is stamped with the generation of the query that wrote it, so
+ * starting a new query only bumps the generation counter instead of clearing
+ * arrays proportional to the grid. The seen and closed flags share one stamp
+ * per cell, which keeps the workspace at 12 bytes per cell plus its open set.
+ * A workspace is not thread-safe; keep one per thread or hand them out from a pool.
+ */
+public class SearchWorkspace {
+    private final int cellCount;
+    private static final int SEEN = 1;
+    private static final int CLOSED = 2;
+    // Generations live in the high bits so the two flags fit below them
+    private static final int MAX_GENERATION = Integer.MAX_VALUE >>> 2;
+
+    // The generation that last touched the cell, shifted left by two, ORed with its flags
+    private final int[] stamps;
+    private final float[] g;
+    private final int[] parent;
+    private final IntBinaryHeap binaryHeap;
+    private IndexedDaryHeap indexedHeap;
+    private BucketQueue bucketQueue;
+    private int generation;
+
+    /**
+     * Creates a workspace for grids with the given number of cells.
+     *
+     * @param cellCount The number of cells in the grid
+     */
+    public SearchWorkspace(int cellCount) {
+        this.cellCount = cellCount;
+        this.stamps = new int[cellCount];
+        this.g = new float[cellCount];
+        this.parent = new int[cellCount];
+        this.binaryHeap = new IntBinaryHeap(64);
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * Starts a new query, invalidating everything written by earlier ones in O(1).
+     */
+    public void begin() {
+        if (generation == MAX_GENERATION) {
+            // Stamps from older generations could alias after wrap-around
+            Arrays.fill(stamps, 0);
+            generation = 0;
+        }
+        generation++;
+        binaryHeap.clear();
+        if (indexedHeap != null) {
+            indexedHeap.clear();
+        }
+        if (bucketQueue != null) {
+            bucketQueue.clear();
+        }
+    }
+
+    /**
+     * Checks if the cell has a g-score and parent from the current query.
+     *
+     * @param cell The cell index
+     * @return True if the cell was reached in this query
+     */
+    public boolean isSeen(int cell) {
+        return hasFlag(cell, SEEN);
+    }
+
+    /**
+     * Gets the g-score of a cell.
+     *
+     * @param cell The cell index
+     * @return The cost from the start, or {@code Float.POSITIVE_INFINITY} if not reached yet
+     */
+    public float getG(int cell) {
+        return hasFlag(cell, SEEN) ? g[cell] : Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Gets the parent of a cell.
+     *
+     * @param cell The cell index
+     * @return The parent cell index, or -1 for the start or an unreached cell
+     */
+    public int getParent(int cell) {
+        return hasFlag(cell, SEEN) ? parent[cell] : -1;
+    }
+
+    /**
+     * Records the cost and parent of a cell for the current query.
+     *
+     * @param cell The cell index
+     * @param cost The cost from the start
+     * @param parentCell The parent cell index, or -1 for the start
+     */
+    public void reach(int cell, float cost, int parentCell) {
+        setFlag(cell, SEEN);
+        g[cell] = cost;
+        parent[cell] = parentCell;
+    }
+
+    public boolean isClosed(int cell) {
+        return hasFlag(cell, CLOSED);
+    }
+
+    public void close(int cell) {
+        setFlag(cell, CLOSED);
+    }
+
+    /**
+     * Clears the closed flag of a cell, keeping its g-score and parent, so
+     * searches that run several passes over one query can expand it again.
+     *
+     * @param cell The cell index
+     */
+    public void reopen(int cell) {
+        if ((stamps[cell] >>> 2) == generation) {
+            stamps[cell] &= ~CLOSED;
+        }
+    }
+
+    private boolean hasFlag(int cell, int flag) {
+        int stamp = stamps[cell];
+        return (stamp >>> 2) == generation && (stamp & flag) != 0;
+    }
+
+    private void setFlag(int cell, int flag) {
+        int stamp = stamps[cell];
+        stamps[cell] = (stamp >>> 2) == generation ? stamp | flag : (generation << 2) | flag;
+    }
+
+    /**
+     * Gets an open set of the requested type, emptied at the start of every query.
+     * The indexed heap needs an entry per cell and is only allocated on first use.
+     *
+     * @param type The open set implementation
+     * @return The heap to use as the open set
+     */
+    public OpenSet getOpenSet(OpenSetType type) {
+        switch (type) {
+            case INDEXED_DARY_HEAP:
+                return getIndexedHeap();
+            case BINARY_HEAP:
+            default:
+                return binaryHeap;
+        }
+    }
+
+    /**
+     * Gets the indexed heap, for searches that need to look at or re-prioritise
+     * queued cells. It is the same heap returned for {@link OpenSetType#INDEXED_DARY_HEAP}.
+     *
+     * @return The indexed heap, emptied at the start of every query
+     */
+    public IndexedDaryHeap getIndexedHeap() {
+        if (indexedHeap == null) {
+            indexedHeap = new IndexedDaryHeap(cellCount, 4);
+        }
+        return indexedHeap;
+    }
+
+    /**
+     * Gets a bucket queue wide enough for the given key spread, emptied at the start of every query.
+     * The queue is allocated on first use and replaced only if a wider one is needed.
+     *
+     * @param maxKeySpread The largest difference between keys queued at the same time
+     * @return The bucket queue to use as the open set
+     */
+    public BucketQueue getBucketQueue(int maxKeySpread) {
+        if (bucketQueue == null || bucketQueue.getMaxKeySpread() < maxKeySpread) {
+            bucketQueue = new BucketQueue(cellCount, maxKeySpread);
+        }
+        return bucketQueue;
+    }
+
+    /**
+     * Walks the parent links from a cell back to the start.
+     *
+     * @param goal The cell to start walking from
+     * @return The cells from the goal back to the start
+     */
+    public int[] reconstructPath(int goal) {
+        int length = 0;
+        for (int cell = goal; cell != -1; cell = getParent(cell)) {
+            length++;
+        }
+        int[] path = new int[length];
+        int i = 0;
+        for (int cell = goal; cell != -1; cell = getParent(cell)) {
+            path[i++] = cell;
+        }
+        return path;
+    }
+}
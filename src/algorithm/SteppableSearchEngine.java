@@ -0,0 +1,24 @@
+package algorithm;
+
+/**
+ * A search engine whose queries can be paused between expansions and resumed.
+ * Running a query in one go is the same as stepping it to the end.
+ */
+public interface SteppableSearchEngine extends SearchEngine {
+    /**
+     * Starts a search between two cells without expanding any cell yet.
+     * The start cell is pushed, and reported to the observer, right away.
+     *
+     * @param start The starting cell index
+     * @param goal The ending cell index
+     * @param workspace The scratch state to use, sized for the engine's grid, owned by the search until it is done
+     * @param observer The receiver of the search events, called from {@link StepwiseSearch#step}
+     * @return The search, ready to step
+     */
+    StepwiseSearch start(int start, int goal, SearchWorkspace workspace, SearchObserver observer);
+
+    @Override
+    default SearchResult search(int start, int goal, SearchWorkspace workspace, SearchObserver observer) {
+        return start(start, goal, workspace, observer).run();
+    }
+}
@@ -0,0 +1,68 @@
+package algorithm;
+
+/**
+ * A search in progress that runs a bounded number of expansions per call, so
+ * a caller such as an animation can advance it a little at a time and show
+ * its events as they happen, without storing them or waiting for the end.
+ * The search keeps its open set in the workspace it was started with, which
+ * must not be used for anything else until the search is done. Barrier edits
+ * between steps are not detected; start a new search after editing the grid.
+ *
+ * @see SteppableSearchEngine
+ */
+public abstract class StepwiseSearch {
+    private SearchResult result;
+
+    /**
+     * Runs up to a number of expansions, or none if the search is already done.
+     *
+     * @param maxExpansions The most cells to expand in this step, at least 1
+     * @return True if the search is done, false if it needs more steps
+     */
+    public final boolean step(int maxExpansions) {
+        if (maxExpansions < 1) {
+            throw new IllegalArgumentException("Step must allow at least one expansion: " + maxExpansions);
+        }
+        if (result == null) {
+            result = advance(maxExpansions);
+        }
+        return result != null;
+    }
+
+    /**
+     * Runs the remaining expansions.
+     *
+     * @return The search result
+     */
+    public final SearchResult run() {
+        while (!step(Integer.MAX_VALUE)) {
+            // Each step ends after at most Integer.MAX_VALUE expansions
+        }
+        return result;
+    }
+
+    public boolean isDone() {
+        return result != null;
+    }
+
+    /**
+     * Gets the outcome of the search.
+     *
+     * @return The search result
+     * @throws IllegalStateException If the search is not done yet
+     */
+    public SearchResult getResult() {
+        if (result == null) {
+            throw new IllegalStateException("Search has not finished");
+        }
+        return result;
+    }
+
+    /**
+     * Continues the search for up to a number of expansions.
+     *
+     * @param maxExpansions The most cells to expand, at least 1
+     * @return The search result once the search is done, or null if it needs more steps
+     */
+    protected abstract SearchResult advance(int maxExpansions);
+}
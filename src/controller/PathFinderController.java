@@ -1,12 +1,23 @@
 package controller;
 
+import algorithm.FlowField;
+import algorithm.PathAlgorithm;
 import algorithm.PathFinder;
+import algorithm.SearchEngineProvider;
+import algorithm.SearchObserver;
+import algorithm.SearchResult;
+import algorithm.SearchTrace;
+import algorithm.StepwiseSearch;
 import maze.MazeGenerator;
+import model.GridModel;
 import ui.AnalysisPanel;
+import ui.FramePacer;
+import ui.GridCanvas;
 import ui.InteractionMode;
 import ui.InteractionToolbar;
 import ui.LegendPanel;
 import ui.StatusPanel;
+import ui.TerrainType;
 import util.GridUtils;
 import util.ZoomHandler;
 
@@ -15,9 +26,17 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.util.ArrayList;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
 
 /**
  * Main controller class for the Path Finding Visualizer application.
@@ -25,17 +44,21 @@ import java.util.List;
  */
 public class PathFinderController extends JPanel {
     // Grid properties
-    private int gridSize = 30;
+    private int gridWidth = 30;
+    private int gridHeight = 30;
     private int cellSize = 30; // Size of each grid cell to maintain square shape
-    private JButton[][] gridButtons;
     private Point start;
     private Point end;
-    private final List<Point> barriers = new ArrayList<>();
+    private GridModel gridModel;
     
     // Animation properties
-    private int animationDelay = 100;
+    private static final int ANIMATION_FRAME_MILLIS = 16; // About 60 frames per second
+    private static final long ANIMATION_FRAME_WORK_NANOS = 10_000_000L; // Leaves the rest of a frame for painting
+    private static final int ANIMATION_STEP_CHUNK = 1024; // Expansions between checks of the frame time
+    private int animationDuration = 3000; // Target length of an animation in milliseconds
     private boolean isAnimationToggled = false;
     private boolean stopAnimation = false;
+    private SearchTrace lastTrace; // Events of the last animated search, kept for saving
     
     // Maze properties
     private int mazeDensity;
@@ -46,7 +69,7 @@ public class PathFinderController extends JPanel {
     private LegendPanel legendPanel;
     private InteractionToolbar toolbar;
     private JScrollPane gridScrollPane;
-    private JPanel gridPanel;
+    private GridCanvas gridCanvas;
     private JLabel zoomLabel;
     
     // Interaction properties
@@ -54,9 +77,23 @@ public class PathFinderController extends JPanel {
     private Point dragSource = null;
     private boolean isDragging = false;
     private boolean barrierDragMode = false; // true = add, false = remove
+    private TerrainType selectedTerrain = TerrainType.MUD;
     
     // Algorithm components
+    private static final long ANYTIME_BUDGET_NANOS = 50_000_000L; // Interactive reruns should stay responsive
+    private SearchEngineProvider selectedAlgorithm = PathAlgorithm.A_STAR;
     private PathFinder pathFinder;
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "pathfinding-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private CompletableFuture<?> pendingSearch; // Search or flow field running in the background, or null
+    private CompletableFuture<Void> searchStopped = CompletableFuture.completedFuture(null); // Cancelled tasks have stopped
+    private final ArrayDeque<Runnable> deferredActions = new ArrayDeque<>(); // Waiting for searchStopped
+    private boolean isDeferredRunScheduled;
+    private boolean isRunningDeferred;
+    private Timer animationTimer; // Animation in progress, or null
     private MazeGenerator mazeGenerator;
     
     /**
@@ -64,22 +101,23 @@ public class PathFinderController extends JPanel {
      */
     public PathFinderController() {
         setLayout(new BorderLayout());
-        mazeDensity = gridSize * gridSize / 4;
+        mazeDensity = gridWidth * gridHeight / 4;
+        gridModel = new GridModel(gridWidth, gridHeight);
         
         // Create main components
-        gridPanel = new JPanel(new GridLayout(gridSize, gridSize));
-        gridScrollPane = new JScrollPane(gridPanel);
+        gridCanvas = new GridCanvas(gridWidth, gridHeight, cellSize);
+        gridScrollPane = new JScrollPane(gridCanvas);
         
         // Set up zoom handler
-        ZoomHandler zoomHandler = new ZoomHandler(gridPanel, gridScrollPane);
+        ZoomHandler zoomHandler = new ZoomHandler(gridCanvas, gridScrollPane);
         gridScrollPane.addMouseWheelListener(zoomHandler);
         
-        // Initialize the grid
-        initializeGrid();
+        // Route mouse input on the canvas to the cell under the pointer
+        installGridMouseHandlers();
         
         // Initialize algorithm components
-        pathFinder = new PathFinder(gridSize, barriers);
-        mazeGenerator = new MazeGenerator(gridSize);
+        pathFinder = new PathFinder(gridModel);
+        mazeGenerator = new MazeGenerator(gridWidth, gridHeight);
         
         // Create zoom indicator
         zoomLabel = new JLabel("Zoom: 100%");
@@ -87,7 +125,7 @@ public class PathFinderController extends JPanel {
         statusBar.add(zoomLabel);
         
         // Create interaction toolbar
-        toolbar = new InteractionToolbar(this::setInteractionMode);
+        toolbar = new InteractionToolbar(this::setInteractionMode, terrain -> selectedTerrain = terrain);
         
         // Add components to main panel
         add(toolbar, BorderLayout.NORTH);
@@ -102,48 +140,40 @@ public class PathFinderController extends JPanel {
     }
     
     /**
-     * Initializes the grid with buttons.
+     * Adds the mouse listeners for click, drag, and move operations to the grid canvas.
+     * Drags report each cell the pointer enters, once.
      */
-    private void initializeGrid() {
-        gridPanel.removeAll();
-        gridPanel.setLayout(new GridLayout(gridSize, gridSize));
-        gridButtons = new JButton[gridSize][gridSize];
-        
-        // Calculate cell size to maintain square cells
-        for (int row = 0; row < gridSize; row++) {
-            for (int col = 0; col < gridSize; col++) {
-                gridButtons[row][col] = new JButton();
-                gridButtons[row][col].setPreferredSize(new Dimension(cellSize, cellSize));
-                gridButtons[row][col].setMinimumSize(new Dimension(cellSize, cellSize));
-                gridButtons[row][col].setMaximumSize(new Dimension(cellSize, cellSize));
-                gridButtons[row][col].setBackground(Color.WHITE);
-                gridButtons[row][col].setBorderPainted(false);
-                gridPanel.add(gridButtons[row][col]);
-                
-                final int r = row;
-                final int c = col;
-                
-                // Add mouse listeners for click, drag, and move operations
-                gridButtons[row][col].addMouseListener(new MouseAdapter() {
-                    @Override
-                    public void mousePressed(MouseEvent e) {
-                        handleMousePressed(r, c, e);
-                    }
-                    
-                    @Override
-                    public void mouseReleased(MouseEvent e) {
-                        handleMouseReleased();
-                    }
-                    
-                    @Override
-                    public void mouseEntered(MouseEvent e) {
-                        if (isDragging) {
-                            handleMouseDrag(r, c);
-                        }
+    private void installGridMouseHandlers() {
+        MouseAdapter mouseHandler = new MouseAdapter() {
+            private Point lastCell;
+            
+            @Override
+            public void mousePressed(MouseEvent e) {
+                lastCell = gridCanvas.cellAt(e.getX(), e.getY());
+                if (lastCell != null) {
+                    handleMousePressed(lastCell.x, lastCell.y, e);
+                }
+            }
+            
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                lastCell = null;
+                handleMouseReleased();
+            }
+            
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                Point cell = gridCanvas.cellAt(e.getX(), e.getY());
+                if (cell != null && !cell.equals(lastCell)) {
+                    lastCell = cell;
+                    if (isDragging) {
+                        handleMouseDrag(cell.x, cell.y);
                     }
-                });
+                }
             }
-        }
+        };
+        gridCanvas.addMouseListener(mouseHandler);
+        gridCanvas.addMouseMotionListener(mouseHandler);
     }
     
     /**
@@ -179,6 +209,9 @@ public class PathFinderController extends JPanel {
             case REMOVE_BARRIERS:
                 statusPanel.showStatusMessage("Click or drag to remove barriers", Color.ORANGE);
                 break;
+            case PAINT_TERRAIN:
+                statusPanel.showStatusMessage("Click or drag to paint terrain", new Color(140, 90, 40));
+                break;
             case MOVE:
                 statusPanel.showStatusMessage("Drag to move start/end points", Color.MAGENTA);
                 break;
@@ -200,6 +233,7 @@ public class PathFinderController extends JPanel {
                 cursor = new Cursor(Cursor.HAND_CURSOR);
                 break;
             case REMOVE_BARRIERS:
+            case PAINT_TERRAIN:
                 cursor = new Cursor(Cursor.HAND_CURSOR);
                 break;
             case MOVE:
@@ -210,11 +244,11 @@ public class PathFinderController extends JPanel {
                 break;
         }
         
-        gridPanel.setCursor(cursor);
+        gridCanvas.setCursor(cursor);
     }
     
     /**
-     * Handles mouse press events on grid buttons.
+     * Handles mouse press events on grid cells.
      * 
      * @param row Row index
      * @param col Column index
@@ -227,10 +261,10 @@ public class PathFinderController extends JPanel {
             case PLACE_START:
                 if (start != null) {
                     // Clear existing start
-                    gridButtons[start.x][start.y].setBackground(Color.WHITE);
+                    gridCanvas.setCellColor(start.x, start.y, cellBackground(start.x, start.y));
                 }
                 start = clickPoint;
-                gridButtons[row][col].setBackground(new Color(0, 0, 220)); // Brighter blue
+                gridCanvas.setCellColor(row, col, new Color(0, 0, 220)); // Brighter blue
                 
                 // If end is already placed, switch to barrier mode
                 if (end != null) {
@@ -243,10 +277,10 @@ public class PathFinderController extends JPanel {
             case PLACE_END:
                 if (end != null) {
                     // Clear existing end
-                    gridButtons[end.x][end.y].setBackground(Color.WHITE);
+                    gridCanvas.setCellColor(end.x, end.y, cellBackground(end.x, end.y));
                 }
                 end = clickPoint;
-                gridButtons[row][col].setBackground(new Color(220, 0, 0)); // Brighter red
+                gridCanvas.setCellColor(row, col, new Color(220, 0, 0)); // Brighter red
                 
                 // Switch to barrier mode
                 toolbar.setMode(InteractionMode.ADD_BARRIERS);
@@ -271,6 +305,11 @@ public class PathFinderController extends JPanel {
                 removeBarrier(row, col);
                 break;
                 
+            case PAINT_TERRAIN:
+                isDragging = true;
+                paintTerrain(row, col);
+                break;
+                
             case MOVE:
                 if (clickPoint.equals(start) || clickPoint.equals(end)) {
                     isDragging = true;
@@ -311,18 +350,22 @@ public class PathFinderController extends JPanel {
                 }
                 break;
                 
+            case PAINT_TERRAIN:
+                paintTerrain(row, col);
+                break;
+                
             case MOVE:
                 if (dragSource != null) {
                     if (!currentPoint.equals(start) && !currentPoint.equals(end)) {
                         if (dragSource.equals(start)) {
                             // Move start point
-                            gridButtons[start.x][start.y].setBackground(Color.WHITE);
+                            gridCanvas.setCellColor(start.x, start.y, cellBackground(start.x, start.y));
                             
                             // Don't remove barriers when just passing over during drag
                             // The visual change is temporary during dragging
                             
                             start = currentPoint;
-                            gridButtons[row][col].setBackground(new Color(0, 0, 220)); // Brighter blue
+                            gridCanvas.setCellColor(row, col, new Color(0, 0, 220)); // Brighter blue
                             dragSource = start;
                             
                             // Update path if end is placed
@@ -332,13 +375,13 @@ public class PathFinderController extends JPanel {
                             }
                         } else if (dragSource.equals(end)) {
                             // Move end point
-                            gridButtons[end.x][end.y].setBackground(Color.WHITE);
+                            gridCanvas.setCellColor(end.x, end.y, cellBackground(end.x, end.y));
                             
                             // Don't remove barriers when just passing over during drag
                             // The visual change is temporary during dragging
                             
                             end = currentPoint;
-                            gridButtons[row][col].setBackground(new Color(220, 0, 0)); // Brighter red
+                            gridCanvas.setCellColor(row, col, new Color(220, 0, 0)); // Brighter red
                             dragSource = end;
                             
                             // Update path if start is placed
@@ -361,26 +404,8 @@ public class PathFinderController extends JPanel {
         // and remove the barrier if needed (only at final placement)
         if (dragSource != null) {
             // Check if we were dragging start or end
-            if (start != null && dragSource.equals(start)) {
-                // Remove barrier if the start point is finally placed on a barrier
-                if (barriers.contains(start)) {
-                    barriers.remove(start);
-                    // Update pathfinding if needed
-                    if (end != null && !isAnimationToggled) {
-                        clearPath();
-                        runPathfinding();
-                    }
-                }
-            } else if (end != null && dragSource.equals(end)) {
-                // Remove barrier if the end point is finally placed on a barrier
-                if (barriers.contains(end)) {
-                    barriers.remove(end);
-                    // Update pathfinding if needed
-                    if (start != null && !isAnimationToggled) {
-                        clearPath();
-                        runPathfinding();
-                    }
-                }
+            if ((start != null && dragSource.equals(start)) || (end != null && dragSource.equals(end))) {
+                freeEndpoint(dragSource);
             }
         }
         
@@ -388,6 +413,25 @@ public class PathFinderController extends JPanel {
         dragSource = null;
     }
     
+    /**
+     * Removes the barrier under a start or end point finally placed on one,
+     * then updates the path if needed.
+     */
+    private void freeEndpoint(Point endpoint) {
+        // The search started during the drag stays valid unless there is a barrier to remove
+        if (!gridModel.isBlocked(endpoint.x, endpoint.y) || deferUntilSearchStops(() -> freeEndpoint(endpoint))) {
+            return;
+        }
+        if (!endpoint.equals(start) && !endpoint.equals(end)) {
+            return;
+        }
+        gridModel.setBlocked(endpoint.x, endpoint.y, false);
+        if (start != null && end != null && !isAnimationToggled) {
+            clearPath();
+            runPathfinding();
+        }
+    }
+    
     /**
      * Creates and displays the control panel.
      */
@@ -401,12 +445,27 @@ public class PathFinderController extends JPanel {
         // Create buttons and controls
         JButton startButton = new JButton("Start Pathfinding");
         JButton clearButton = new JButton("Clear Grid");
+        JButton flowFieldButton = new JButton("Show Distance Field");
+        JComboBox<SearchEngineProvider> algorithmBox = new JComboBox<>(
+                pathFinder.getRegistry().getProviders().toArray(new SearchEngineProvider[0]));
+        algorithmBox.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                          boolean isSelected, boolean cellHasFocus) {
+                // Registered engines need not override toString, so list them by name
+                Object text = value instanceof SearchEngineProvider ? ((SearchEngineProvider) value).getDisplayName() : value;
+                return super.getListCellRendererComponent(list, text, index, isSelected, cellHasFocus);
+            }
+        });
+        algorithmBox.setSelectedItem(selectedAlgorithm);
         JButton genMazePrimsButton = new JButton("Generate Maze (Prims)");
         JButton saveButton = new JButton("Save Image");
         JButton loadButton = new JButton("Load Image");
+        JButton saveTraceButton = new JButton("Save Trace");
         JRadioButton animationToggle = new JRadioButton("Enable Animation");
-        JSlider animationDelaySlider = new JSlider(0, 500, animationDelay);
-        JSlider mazeDensitySlider = new JSlider(100, gridSize * gridSize, mazeDensity);
+        JSlider animationDurationSlider = new JSlider(0, 10000, animationDuration);
+        animationDurationSlider.setToolTipText("Animation length (0-10 s)");
+        JSlider mazeDensitySlider = new JSlider(100, gridWidth * gridHeight, mazeDensity);
         JButton changeGridSizeButton = new JButton("Change Grid Size");
         JButton genMazeButton = new JButton("Generate Maze (Density)");
         
@@ -415,7 +474,7 @@ public class PathFinderController extends JPanel {
         JRadioButton legendToggle = new JRadioButton("Enable Legends");
         
         // Create UI panels
-        statusPanel = new StatusPanel(gridSize);
+        statusPanel = new StatusPanel(gridWidth, gridHeight);
         analysisPanel = new AnalysisPanel();
         legendPanel = new LegendPanel();
         
@@ -427,12 +486,15 @@ public class PathFinderController extends JPanel {
         });
         
         clearButton.addActionListener(e -> reset());
+        flowFieldButton.addActionListener(e -> showFlowField());
+        algorithmBox.addActionListener(e -> setAlgorithm((SearchEngineProvider) algorithmBox.getSelectedItem()));
         genMazePrimsButton.addActionListener(e -> generateMazeUsingPrims());
         genMazeButton.addActionListener(e -> generateRandomMaze());
         saveButton.addActionListener(e -> takeGridScreenshot());
         loadButton.addActionListener(e -> loadImage());
+        saveTraceButton.addActionListener(e -> saveTrace());
         animationToggle.addActionListener(e -> isAnimationToggled = animationToggle.isSelected());
-        animationDelaySlider.addChangeListener(e -> animationDelay = animationDelaySlider.getValue());
+        animationDurationSlider.addChangeListener(e -> animationDuration = animationDurationSlider.getValue());
         mazeDensitySlider.addChangeListener(e -> mazeDensity = mazeDensitySlider.getValue());
         changeGridSizeButton.addActionListener(e -> updateGridSizeWithPopup(mazeDensitySlider));
         
@@ -442,7 +504,9 @@ public class PathFinderController extends JPanel {
         
         // Create panels and add components
         JPanel pathfindingPanel = createPanelWithComponents(startButton, clearButton);
-        JPanel filePanel = createPanelWithComponents(saveButton, loadButton);
+        JPanel flowFieldPanel = createPanelWithComponents(flowFieldButton);
+        JPanel algorithmPanel = createPanelWithComponents(new JLabel("Algorithm:"), algorithmBox);
+        JPanel filePanel = createPanelWithComponents(saveButton, loadButton, saveTraceButton);
         JPanel mazePrimsPanel = createPanelWithComponents(genMazePrimsButton);
         
         JPanel mazeDensityPanel = new JPanel(new BorderLayout());
@@ -451,12 +515,12 @@ public class PathFinderController extends JPanel {
         
         JPanel animationPanel = new JPanel(new BorderLayout());
         animationPanel.add(animationToggle, BorderLayout.WEST);
-        animationPanel.add(animationDelaySlider, BorderLayout.CENTER);
+        animationPanel.add(animationDurationSlider, BorderLayout.CENTER);
         
         JPanel gridSizePanel = createPanelWithComponents(changeGridSizeButton);
         
         // Add sections to control frame
-        controlFrame.add(createSectionPanel("Pathfinding Controls", pathfindingPanel));
+        controlFrame.add(createSectionPanel("Pathfinding Controls", pathfindingPanel, algorithmPanel, flowFieldPanel));
         controlFrame.add(Box.createVerticalStrut(10));
         controlFrame.add(createSectionPanel("File Operations", filePanel));
         controlFrame.add(Box.createVerticalStrut(10));
@@ -484,6 +548,22 @@ public class PathFinderController extends JPanel {
         controlFrame.setVisible(true);
     }
     
+    /**
+     * Selects the algorithm used for pathfinding and reruns the search if a path is shown.
+     * 
+     * @param algorithm The engine to use
+     */
+    private void setAlgorithm(SearchEngineProvider algorithm) {
+        selectedAlgorithm = algorithm;
+        pathFinder.setAlgorithm(algorithm);
+        statusPanel.updateAlgorithm(algorithm.getDisplayName(), algorithm.getHeuristicName());
+        
+        if (!isAnimationToggled && start != null && end != null) {
+            clearPath();
+            runPathfinding();
+        }
+    }
+    
     /**
      * Sets up keyboard shortcuts.
      */
@@ -553,17 +633,21 @@ public class PathFinderController extends JPanel {
      * Adds a barrier at the specified position.
      */
     private void addBarrier(int row, int col) {
+        if (deferUntilSearchStops(() -> addBarrier(row, col))) {
+            return;
+        }
         Point barrierToAdd = new Point(row, col);
         if (!barrierToAdd.equals(start) && !barrierToAdd.equals(end)) {
-            barriers.add(barrierToAdd);
-            gridButtons[row][col].setBackground(Color.BLACK);
+            cancelSearch();
+            gridModel.setBlocked(row, col, true);
+            gridCanvas.setCellColor(row, col, Color.BLACK);
             clearPath();
             
             if (!isAnimationToggled && start != null && end != null) {
                 runPathfinding();
             }
             
-            statusPanel.updateGridStats(gridSize, barriers.size());
+            statusPanel.updateGridStats(gridWidth, gridHeight, gridModel.getBarrierCount());
         }
     }
     
@@ -571,79 +655,265 @@ public class PathFinderController extends JPanel {
      * Removes a barrier at the specified position.
      */
     private void removeBarrier(int row, int col) {
+        if (deferUntilSearchStops(() -> removeBarrier(row, col))) {
+            return;
+        }
         Point barrierToRemove = new Point(row, col);
         if (!barrierToRemove.equals(start) && !barrierToRemove.equals(end)) {
-            barriers.removeIf(p -> p.equals(barrierToRemove));
-            gridButtons[row][col].setBackground(Color.WHITE);
+            cancelSearch();
+            gridModel.setBlocked(row, col, false);
+            gridCanvas.setCellColor(row, col, cellBackground(row, col));
             clearPath();
             
             if (!isAnimationToggled && start != null && end != null) {
                 runPathfinding();
             }
             
-            statusPanel.updateGridStats(gridSize, barriers.size());
+            statusPanel.updateGridStats(gridWidth, gridHeight, gridModel.getBarrierCount());
         }
     }
     
     /**
-     * Starts the pathfinding process.
+     * Paints the selected terrain at the specified position, replacing any barrier.
      */
-    private void startPathfinding() {
-        if (start != null && end != null) {
-            long startTime = System.currentTimeMillis();
-            List<List<Point>> paths = pathFinder.findPath(start, end);
-            long elapsedTime = System.currentTimeMillis() - startTime;
-            int totalNodes = gridSize * gridSize;
+    private void paintTerrain(int row, int col) {
+        Point cell = new Point(row, col);
+        // Painting over the same terrain changes nothing, so it must not cancel the search either
+        if (cell.equals(start) || cell.equals(end) || gridModel.getCost(row, col) == selectedTerrain.getCost()
+                || deferUntilSearchStops(() -> paintTerrain(row, col))) {
+            return;
+        }
+        if (gridModel.setCost(row, col, selectedTerrain.getCost())) {
+            gridCanvas.setCellColor(row, col, cellBackground(row, col));
+            clearPath();
             
-            if (paths.get(1).isEmpty()) {
-                analysisPanel.updateIndicators(0, 0);
-                statusPanel.updatePathMetrics(0, paths.get(0).size(), elapsedTime);
-                statusPanel.showStatusMessage("No path exists!", Color.RED);
-                return;
+            if (!isAnimationToggled && start != null && end != null) {
+                runPathfinding();
             }
             
-            // Calculate metrics
-            int optimality = pathFinder.calculateOptimality(start, end, paths.get(1));
-            int efficiency = pathFinder.calculateEfficiency(paths.get(0).size(), totalNodes);
-            
+            statusPanel.updateGridStats(gridWidth, gridHeight, gridModel.getBarrierCount());
+        }
+    }
+    
+    /**
+     * Gets the background of a cell without any path overlay: black for
+     * barriers, otherwise the color of its terrain.
+     */
+    private Color cellBackground(int row, int col) {
+        return gridModel.isBlocked(row, col) ? Color.BLACK : TerrainType.colorFor(gridModel.getCost(row, col));
+    }
+    
+    /**
+     * Starts the pathfinding process.
+     * Without animation the search runs in the background and its result is
+     * shown once it completes. With animation, engines that can be stepped are
+     * advanced a batch of expansions per frame, so the exploration shows from
+     * the first frame; other engines run in the background and their recorded
+     * trace is replayed.
+     */
+    private void startPathfinding() {
+        if (deferUntilSearchStops(this::startPathfinding)) {
+            return;
+        }
+        if (start != null && end != null) {
             if (!isAnimationToggled) {
-                visualizePath(paths.get(1));
-                statusPanel.updatePathMetrics(
-                        paths.get(1).size() - 1,
-                        paths.get(0).size(),
-                        elapsedTime
-                );
-                analysisPanel.updateIndicators(optimality, efficiency);
-                statusPanel.showStatusMessage("Path found!", Color.GREEN);
-            } else {
-                visualizePathWithAnimation(paths.get(0), paths.get(1), () -> {
-                    statusPanel.updatePathMetrics(
-                            paths.get(1).size() - 1,
-                            paths.get(0).size(),
-                            elapsedTime
-                    );
-                    analysisPanel.updateIndicators(optimality, efficiency);
-                    statusPanel.showStatusMessage("Path found!", Color.GREEN);
+                statusPanel.showStatusMessage("Searching...", Color.BLUE);
+                searchInBackground(SearchObserver.NONE, (result, elapsedTime) -> {
+                    visualizePath(result.getPathPoints());
+                    showSearchResult(result, elapsedTime);
                 });
+            } else if (pathFinder.canStep()) {
+                cancelSearch();
+                SearchTrace trace = new SearchTrace(gridWidth);
+                visualizePathWithAnimation(pathFinder.startSearch(start, end, explorationPainter(trace)), trace, -1, -1);
+            } else {
+                SearchTrace trace = new SearchTrace(gridWidth);
+                statusPanel.showStatusMessage("Searching...", Color.BLUE);
+                searchInBackground(trace, (result, elapsedTime) -> visualizePathWithAnimation(
+                        trace.replayInSteps(explorationPainter(SearchObserver.NONE), result), trace,
+                        trace.getExpansionCount(), elapsedTime));
             }
-            
-            statusPanel.updateGridStats(gridSize, barriers.size());
         } else {
             statusPanel.showStatusMessage("Set both start and end points first!", Color.ORANGE);
         }
     }
     
     /**
-     * Runs the pathfinding algorithm and updates visualizations.
+     * Shows the path length, search statistics and complexity indicators of a finished search.
+     * 
+     * @param result The search result
+     * @param elapsedTime The search time in milliseconds
      */
-    private void runPathfinding() {
-        pathFinder = new PathFinder(gridSize, barriers);
-        List<List<Point>> paths = pathFinder.findPath(start, end);
-        visualizePath(paths.get(1));
+    private void showSearchResult(SearchResult result, long elapsedTime) {
+        List<Point> path = result.getPathPoints();
+        int explored = result.getExploredCount();
+        if (path.isEmpty()) {
+            analysisPanel.updateIndicators(0, 0);
+            statusPanel.updatePathMetrics(0, explored, elapsedTime);
+            if (result.isLimitReached()) {
+                statusPanel.showStatusMessage("Search limit reached!", Color.ORANGE);
+            } else {
+                statusPanel.showStatusMessage("No path exists!", Color.RED);
+            }
+            return;
+        }
         
-        int optimality = pathFinder.calculateOptimality(start, end, paths.get(1));
-        int efficiency = pathFinder.calculateEfficiency(paths.get(0).size(), gridSize * gridSize);
+        // Calculate metrics
+        int optimality = pathFinder.calculateOptimality(start, end, path);
+        int efficiency = pathFinder.calculateEfficiency(explored, gridWidth * gridHeight);
+        statusPanel.updatePathMetrics(path.size() - 1, explored, elapsedTime);
         analysisPanel.updateIndicators(optimality, efficiency);
+        statusPanel.showStatusMessage("Path found!", Color.GREEN);
+        statusPanel.updateGridStats(gridWidth, gridHeight, gridModel.getBarrierCount());
+    }
+    
+    /**
+     * Starts a search on the background thread, cancelling any search still running.
+     * The result is handed to the callback on the event dispatch thread, unless
+     * the search was cancelled or replaced by a newer one in the meantime.
+     * 
+     * @param observer The receiver of the search events, called on the background thread
+     * @param onResult The receiver of the result and the search time in milliseconds
+     */
+    private void searchInBackground(SearchObserver observer, BiConsumer<SearchResult, Long> onResult) {
+        cancelSearch();
+        long startTime = System.currentTimeMillis();
+        whenDone(findPath(observer), startTime, onResult);
+    }
+    
+    /**
+     * Makes a background task the pending one and hands its result to a callback
+     * on the event dispatch thread, unless it was cancelled or replaced by a newer task.
+     * 
+     * @param task The task running on the background thread
+     * @param startTime The time the task was started, from {@link System#currentTimeMillis()}
+     * @param onResult The receiver of the result and the time taken in milliseconds
+     */
+    private <T> void whenDone(CompletableFuture<T> task, long startTime, BiConsumer<T, Long> onResult) {
+        pendingSearch = task;
+        task.whenComplete((result, failure) -> {
+            long elapsedTime = System.currentTimeMillis() - startTime;
+            SwingUtilities.invokeLater(() -> {
+                if (task != pendingSearch) {
+                    return;
+                }
+                pendingSearch = null;
+                if (failure != null) {
+                    statusPanel.showStatusMessage("Search failed: " + failure.getMessage(), Color.RED);
+                } else {
+                    onResult.accept(result, elapsedTime);
+                }
+            });
+        });
+    }
+    
+    /**
+     * Cancels the search running in the background or being animated, if any; its result is never shown.
+     * Cancelling interrupts the background task, which stops at its next check,
+     * within a few hundred expansions, but may still be reading the grid when
+     * this returns; {@link #deferUntilSearchStops} waits for it without blocking.
+     */
+    private void cancelSearch() {
+        if (pendingSearch != null) {
+            pendingSearch.cancel(false);
+            pendingSearch = null;
+            // Tasks run in order, so this completes once the cancelled one has stopped
+            searchStopped = CompletableFuture.runAsync(() -> { }, searchExecutor);
+        }
+        if (animationTimer != null) {
+            animationTimer.stop();
+            animationTimer = null;
+        }
+    }
+    
+    /**
+     * Cancels any search, and queues an action if it cannot run yet: while a
+     * cancelled background task is still reading the grid, or earlier actions
+     * are still queued. Queued actions run in order on the event dispatch
+     * thread once the background thread is done with the grid, so the event
+     * thread never waits for it. Every action that edits the grid or starts a
+     * background task calls this first; edits it makes as part of a queued
+     * action run at once.
+     * 
+     * @param action The action to run later, normally calling the caller again with the same arguments
+     * @return True if the action was queued, in which case the caller must return without doing anything
+     */
+    private boolean deferUntilSearchStops(Runnable action) {
+        if (isRunningDeferred) {
+            return false;
+        }
+        cancelSearch();
+        if (deferredActions.isEmpty() && searchStopped.isDone()) {
+            return false;
+        }
+        deferredActions.add(action);
+        if (!isDeferredRunScheduled) {
+            runDeferredActionsWhenStopped();
+        }
+        return true;
+    }
+    
+    private void runDeferredActionsWhenStopped() {
+        isDeferredRunScheduled = true;
+        searchStopped.whenComplete((ignored, failure) -> SwingUtilities.invokeLater(this::runDeferredActions));
+    }
+    
+    /**
+     * Runs the queued actions in order until one of them starts a background
+     * task that the next has to wait for.
+     */
+    private void runDeferredActions() {
+        // Cleared first, so an action that throws leaves the rest to be run after the next queued one
+        isDeferredRunScheduled = false;
+        while (!deferredActions.isEmpty()) {
+            cancelSearch();
+            if (!searchStopped.isDone()) {
+                runDeferredActionsWhenStopped();
+                return;
+            }
+            isRunningDeferred = true;
+            try {
+                deferredActions.poll().run();
+            } finally {
+                isRunningDeferred = false;
+            }
+        }
+    }
+    
+    /**
+     * Finds the path between the start and end points with the selected algorithm
+     * on the background thread.
+     * The anytime search gets a fixed time budget and reports each improved path
+     * to the status panel.
+     * 
+     * @param observer The receiver of the search events, such as a trace to animate
+     * @return The pending search result
+     */
+    private CompletableFuture<SearchResult> findPath(SearchObserver observer) {
+        if (selectedAlgorithm == PathAlgorithm.ARA_STAR) {
+            return pathFinder.searchAnytimeAsync(start, end, ANYTIME_BUDGET_NANOS,
+                    (improved, bound) -> SwingUtilities.invokeLater(
+                            () -> statusPanel.updateSolutionBound(improved.getCost(), bound)),
+                    observer, searchExecutor);
+        }
+        return pathFinder.searchAsync(start, end, observer, searchExecutor);
+    }
+    
+    /**
+     * Runs the pathfinding algorithm and updates visualizations.
+     */
+    private void runPathfinding() {
+        if (deferUntilSearchStops(this::runPathfinding)) {
+            return;
+        }
+        searchInBackground(SearchObserver.NONE, (result, elapsedTime) -> {
+            List<Point> path = result.getPathPoints();
+            visualizePath(path);
+            
+            int optimality = pathFinder.calculateOptimality(start, end, path);
+            int efficiency = pathFinder.calculateEfficiency(result.getExploredCount(), gridWidth * gridHeight);
+            analysisPanel.updateIndicators(optimality, efficiency);
+        });
     }
     
     /**
@@ -676,36 +946,47 @@ public class PathFinderController extends JPanel {
      * Updates grid size based on user input.
      */
     private void updateGridSizeWithPopup(JSlider mazeDensitySlider) {
-        JTextField gridSizeField = new JTextField(5);
+        JTextField widthField = new JTextField(String.valueOf(gridWidth), 5);
+        JTextField heightField = new JTextField(String.valueOf(gridHeight), 5);
         
         JPanel inputPanel = new JPanel();
-        inputPanel.add(new JLabel("New Grid Size:"));
-        inputPanel.add(gridSizeField);
+        inputPanel.add(new JLabel("Width:"));
+        inputPanel.add(widthField);
+        inputPanel.add(new JLabel("Height:"));
+        inputPanel.add(heightField);
         
         int result = JOptionPane.showConfirmDialog(null, inputPanel,
                 "Enter New Grid Size", JOptionPane.OK_CANCEL_OPTION);
         
         if (result == JOptionPane.OK_OPTION) {
             try {
-                int newSize = Integer.parseInt(gridSizeField.getText());
-                if (newSize <= 0) {
+                int newWidth = Integer.parseInt(widthField.getText().trim());
+                int newHeight = Integer.parseInt(heightField.getText().trim());
+                if (newWidth <= 0 || newHeight <= 0) {
+                    JOptionPane.showMessageDialog(null,
+                            "Grid width and height must be positive.",
+                            "Invalid Input",
+                            JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                if ((long) newWidth * newHeight > Integer.MAX_VALUE) {
                     JOptionPane.showMessageDialog(null,
-                            "Grid size must be positive.",
+                            "Grid has too many cells.",
                             "Invalid Input",
                             JOptionPane.ERROR_MESSAGE);
                     return;
                 }
                 
                 Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
-                int maxGridDimension = Math.min(screenSize.height, screenSize.width) - 100;
-                int buttonSize = maxGridDimension / newSize;
+                int buttonSize = Math.min((screenSize.width - 100) / newWidth,
+                        (screenSize.height - 100) / newHeight);
                 
-                // Ensure minimum button size
-                if (buttonSize < 10) {
-                    buttonSize = 10;
+                // Ensure minimum cell size; larger grids scroll
+                if (buttonSize < 2) {
+                    buttonSize = 2;
                 }
                 
-                if (!GridUtils.isGridSizeViable(newSize, buttonSize)) {
+                if (!GridUtils.isGridSizeViable(newWidth, newHeight, buttonSize)) {
                     int confirmResult = JOptionPane.showConfirmDialog(null,
                             "The grid might not fit on your screen. Continue anyway?",
                             "Size Warning",
@@ -717,7 +998,7 @@ public class PathFinderController extends JPanel {
                     }
                 }
                 
-                updateGridSize(newSize, buttonSize, mazeDensitySlider);
+                updateGridSize(newWidth, newHeight, buttonSize, mazeDensitySlider);
             } catch (NumberFormatException e) {
                 JOptionPane.showMessageDialog(null, "Invalid Input");
             }
@@ -727,31 +1008,31 @@ public class PathFinderController extends JPanel {
     /**
      * Updates the grid size and reinitializes the grid.
      */
-    private void updateGridSize(int newSize, int buttonSize, JSlider mazeDensitySlider) {
-        gridSize = newSize;
+    private void updateGridSize(int newWidth, int newHeight, int buttonSize, JSlider mazeDensitySlider) {
+        if (deferUntilSearchStops(() -> updateGridSize(newWidth, newHeight, buttonSize, mazeDensitySlider))) {
+            return;
+        }
+        gridWidth = newWidth;
+        gridHeight = newHeight;
         if (mazeDensitySlider != null) {
-            mazeDensitySlider.setMaximum(gridSize * gridSize);
+            mazeDensitySlider.setMaximum(gridWidth * gridHeight);
         }
         
-        gridPanel.removeAll();
-        gridPanel.revalidate();
-        gridPanel.repaint();
-        
-        gridButtons = new JButton[gridSize][gridSize];
-        barriers.clear();
+        gridModel = new GridModel(gridWidth, gridHeight);
         
         // Update cell size property for the controller
         cellSize = buttonSize;
         
-        initializeGrid();
+        gridCanvas.setGridSize(gridWidth, gridHeight, cellSize);
         
         reset();
         
         // Update algorithm components with new grid size
-        pathFinder = new PathFinder(gridSize, barriers);
-        mazeGenerator = new MazeGenerator(gridSize);
+        pathFinder = new PathFinder(gridModel);
+        pathFinder.setAlgorithm(selectedAlgorithm);
+        mazeGenerator = new MazeGenerator(gridWidth, gridHeight);
         
-        statusPanel.showStatusMessage("Grid size updated to " + gridSize + "x" + gridSize, Color.BLUE);
+        statusPanel.showStatusMessage("Grid size updated to " + gridWidth + "x" + gridHeight, Color.BLUE);
         
         // Get parent container and resize
         Window window = SwingUtilities.getWindowAncestor(this);
@@ -761,55 +1042,181 @@ public class PathFinderController extends JPanel {
         }
     }
     
+    /**
+     * Paints the distance from every cell to the end point as a heatmap,
+     * from red next to the end to blue for the farthest reachable cells.
+     * Cells that cannot reach the end stay white. The field is computed on the
+     * background thread and painted in one batch once it is ready.
+     */
+    private void showFlowField() {
+        if (end == null) {
+            statusPanel.showStatusMessage("Set the end point first!", Color.ORANGE);
+            return;
+        }
+        if (deferUntilSearchStops(this::showFlowField)) {
+            return;
+        }
+        stopAnimation();
+        clearPath();
+        
+        PathFinder finder = pathFinder;
+        Point goal = end;
+        statusPanel.showStatusMessage("Computing distance field...", Color.BLUE);
+        long startTime = System.currentTimeMillis();
+        whenDone(finder.computeFlowFieldAsync(goal, searchExecutor), startTime, this::paintFlowField);
+    }
+    
+    /**
+     * Paints a computed flow field as a heatmap and reports its size.
+     * 
+     * @param field The distance field towards the end point
+     * @param elapsedTime The time taken to compute the field in milliseconds
+     */
+    private void paintFlowField(FlowField field, long elapsedTime) {
+        // Hues run from red (0) to blue (2/3) as the distance grows, in fixed steps so no color is made per cell
+        Color[] palette = new Color[256];
+        for (int i = 0; i < palette.length; i++) {
+            palette[i] = Color.getHSBColor(0.66f * i / (palette.length - 1), 0.6f, 1f);
+        }
+        float maxDistance = Math.max(1, field.getMaxDistance());
+        int startCell = start != null ? gridModel.index(start.x, start.y) : -1;
+        for (int cell = 0; cell < gridModel.getCellCount(); cell++) {
+            int distance = field.getDistance(cell);
+            if (distance > 0 && cell != startCell) {
+                Color color = palette[(int) ((palette.length - 1) * distance / maxDistance)];
+                gridCanvas.setCellColorLater(cell / gridWidth, cell % gridWidth, color);
+            }
+        }
+        gridCanvas.repaintDirtyCells();
+        
+        statusPanel.updatePathMetrics(field.getMaxDistance(), field.getReachableCount(), elapsedTime);
+        statusPanel.showStatusMessage("Distance field: " + field.getReachableCount() + " reachable cells", Color.BLUE);
+    }
+    
     /**
      * Visualizes the path on the grid.
      */
     private void visualizePath(List<Point> path) {
         for (Point p : path) {
             if (!p.equals(start) && !p.equals(end)) {
-                gridButtons[p.x][p.y].setBackground(new Color(0, 180, 0)); // Brighter green
+                gridCanvas.setCellColor(p.x, p.y, new Color(0, 180, 0)); // Brighter green
             }
         }
     }
     
+    /**
+     * Creates an observer that paints each expanded cell as the animation reaches it.
+     * 
+     * @param next The observer to forward every event to, such as a trace recording the search
+     */
+    private SearchObserver explorationPainter(SearchObserver next) {
+        Color exploredColor = new Color(255, 215, 0); // Brighter yellow
+        return new SearchObserver() {
+            @Override
+            public void onPush(int cell) {
+                next.onPush(cell);
+            }
+            
+            @Override
+            public void onExpand(int cell) {
+                next.onExpand(cell);
+                Point p = new Point(cell / gridWidth, cell % gridWidth);
+                if (!p.equals(start) && !p.equals(end)) {
+                    gridCanvas.setCellColorLater(p.x, p.y, exploredColor);
+                }
+            }
+            
+            @Override
+            public void onGoal(int cell) {
+                next.onGoal(cell);
+            }
+        };
+    }
+    
     /**
      * Visualizes the exploration and path with animation.
+     * A timer fires at a fixed frame rate and each frame applies a batch of
+     * expansions, sized by a {@link FramePacer} so the exploration takes about
+     * three quarters of the animation length and the path the rest, however
+     * many cells there are. The cells changed in a frame are repainted together.
+     * When the number of expansions is not known, it is estimated as twice the
+     * expansions so far, so the pace grows until the search ends.
+     * 
+     * @param search The search to animate, whose observer paints the expanded cells
+     * @param trace The trace recording the search, kept for saving once the animation is done
+     * @param totalExpansions The number of expansions the search will make, or -1 if not known
+     * @param elapsedTime The search time in milliseconds, or -1 to report the time spent stepping
      */
-    private void visualizePathWithAnimation(List<Point> explorationPath,
-                                          List<Point> fastestPath,
-                                          Runnable completionCallback) {
+    private void visualizePathWithAnimation(StepwiseSearch search, SearchTrace trace,
+                                            int totalExpansions, long elapsedTime) {
         stopAnimation = false;
-        Timer timer = new Timer(animationDelay, null);
+        // A search expands at least the cells of a shortest path
+        int minimumExpansions = Math.abs(end.x - start.x) + Math.abs(end.y - start.y) + 1;
+        Color pathColor = new Color(0, 180, 0); // Brighter green
+        Timer timer = new Timer(ANIMATION_FRAME_MILLIS, null);
         timer.addActionListener(new ActionListener() {
-            private int explorationIndex = 0;
+            private final FramePacer explorationPacer = new FramePacer(animationDuration * 3L / 4, ANIMATION_FRAME_MILLIS);
+            private FramePacer pathPacer;
+            private long stepNanos = 0;
+            private long expanded = 0;
+            private List<Point> fastestPath;
             private int fastestIndex = 0;
             
             @Override
             public void actionPerformed(ActionEvent e) {
                 if (stopAnimation) {
                     timer.stop();
-                    if (completionCallback != null) completionCallback.run();
                     return;
                 }
                 
-                if (explorationIndex < explorationPath.size()) {
-                    Point p = explorationPath.get(explorationIndex);
-                    if (!p.equals(start) && !p.equals(end)) {
-                        gridButtons[p.x][p.y].setBackground(new Color(255, 215, 0)); // Brighter yellow
-                    }
-                    explorationIndex++;
+                if (fastestPath == null) {
+                    explore();
                 } else if (fastestIndex < fastestPath.size()) {
-                    Point p = fastestPath.get(fastestIndex);
-                    if (!p.equals(start) && !p.equals(end)) {
-                        gridButtons[p.x][p.y].setBackground(new Color(0, 180, 0)); // Brighter green
+                    int last = Math.min(fastestPath.size(),
+                            fastestIndex + pathPacer.eventsForFrame(fastestIndex, fastestPath.size()));
+                    for (; fastestIndex < last; fastestIndex++) {
+                        Point p = fastestPath.get(fastestIndex);
+                        if (!p.equals(start) && !p.equals(end)) {
+                            gridCanvas.setCellColorLater(p.x, p.y, pathColor);
+                        }
                     }
-                    fastestIndex++;
                 } else {
                     timer.stop();
-                    if (completionCallback != null) completionCallback.run();
+                    animationTimer = null;
+                    showSearchResult(search.getResult(), elapsedTime >= 0 ? elapsedTime : stepNanos / 1_000_000);
+                }
+                gridCanvas.repaintDirtyCells();
+            }
+            
+            /**
+             * Applies this frame's batch of expansions, stopping early if the
+             * frame's time runs out; the pacer gives the rest to later frames.
+             */
+            private void explore() {
+                long total = totalExpansions >= 0 ? totalExpansions : Math.max(2 * expanded, minimumExpansions);
+                int batch = explorationPacer.eventsForFrame(expanded, total);
+                long frameStart = System.nanoTime();
+                while (batch > 0) {
+                    int chunk = Math.min(batch, ANIMATION_STEP_CHUNK);
+                    long stepStart = System.nanoTime();
+                    boolean done = search.step(chunk);
+                    stepNanos += System.nanoTime() - stepStart;
+                    if (done) {
+                        fastestPath = search.getResult().getPathPoints();
+                        lastTrace = trace;
+                        pathPacer = new FramePacer(animationDuration / 4, ANIMATION_FRAME_MILLIS);
+                        return;
+                    }
+                    // A step that is not done made every expansion it was allowed
+                    expanded += chunk;
+                    batch -= chunk;
+                    if (System.nanoTime() - frameStart >= ANIMATION_FRAME_WORK_NANOS) {
+                        return;
+                    }
                 }
             }
         });
+        animationTimer = timer;
         timer.start();
     }
     
@@ -817,6 +1224,7 @@ public class PathFinderController extends JPanel {
      * Stops any ongoing animation.
      */
     private void stopAnimation() {
+        cancelSearch();
         stopAnimation = true;
     }
     
@@ -824,17 +1232,16 @@ public class PathFinderController extends JPanel {
      * Resets the grid to its initial state.
      */
     private void reset() {
+        if (deferUntilSearchStops(this::reset)) {
+            return;
+        }
         stopAnimation();
         start = null;
         end = null;
-        barriers.clear();
-        for (int row = 0; row < gridSize; row++) {
-            for (int col = 0; col < gridSize; col++) {
-                gridButtons[row][col].setBackground(Color.WHITE);
-            }
-        }
+        gridModel.clear();
+        repaintGrid();
         statusPanel.updatePathMetrics(0, 0, 0);
-        statusPanel.updateGridStats(gridSize, 0);
+        statusPanel.updateGridStats(gridWidth, gridHeight, 0);
         statusPanel.showStatusMessage("Grid cleared", Color.BLUE);
         analysisPanel.updateIndicators(0, 0);
         
@@ -856,13 +1263,20 @@ public class PathFinderController extends JPanel {
      * Clears the path visualization from the grid.
      */
     private void clearPath() {
-        for (int row = 0; row < gridSize; row++) {
-            for (int col = 0; col < gridSize; col++) {
-                Point currentPoint = new Point(row, col);
-                if (!currentPoint.equals(start) && !currentPoint.equals(end) && !barriers.contains(currentPoint)) {
-                    gridButtons[row][col].setBackground(Color.WHITE);
-                }
-            }
+        cancelSearch();
+        repaintGrid();
+    }
+    
+    /**
+     * Repaints every cell from the grid model, then marks the start and end points.
+     */
+    private void repaintGrid() {
+        gridCanvas.showGrid(gridModel);
+        if (start != null) {
+            gridCanvas.setCellColor(start.x, start.y, new Color(0, 0, 220)); // Brighter blue
+        }
+        if (end != null) {
+            gridCanvas.setCellColor(end.x, end.y, new Color(220, 0, 0)); // Brighter red
         }
     }
     
@@ -870,6 +1284,9 @@ public class PathFinderController extends JPanel {
      * Generates a random maze using density approach.
      */
     private void generateRandomMaze() {
+        if (deferUntilSearchStops(this::generateRandomMaze)) {
+            return;
+        }
         stopAnimation = true;
         
         // Clear grid
@@ -881,17 +1298,12 @@ public class PathFinderController extends JPanel {
         // Apply maze to grid
         start = mazeData.getStart();
         end = mazeData.getEnd();
-        barriers.addAll(mazeData.getBarriers());
+        gridModel.copyFrom(mazeData.getGrid());
         
         // Update UI
-        gridButtons[start.x][start.y].setBackground(Color.BLUE);
-        gridButtons[end.x][end.y].setBackground(Color.RED);
-        
-        for (Point barrier : barriers) {
-            gridButtons[barrier.x][barrier.y].setBackground(Color.BLACK);
-        }
+        repaintGrid();
         
-        statusPanel.updateGridStats(gridSize, barriers.size());
+        statusPanel.updateGridStats(gridWidth, gridHeight, gridModel.getBarrierCount());
         statusPanel.showStatusMessage("Maze generated (Density)", new Color(0, 100, 0));
     }
     
@@ -899,6 +1311,9 @@ public class PathFinderController extends JPanel {
      * Generates a maze using Prim's algorithm.
      */
     private void generateMazeUsingPrims() {
+        if (deferUntilSearchStops(this::generateMazeUsingPrims)) {
+            return;
+        }
         stopAnimation = true;
         
         // Clear grid
@@ -910,17 +1325,12 @@ public class PathFinderController extends JPanel {
         // Apply maze to grid
         start = mazeData.getStart();
         end = mazeData.getEnd();
-        barriers.addAll(mazeData.getBarriers());
+        gridModel.copyFrom(mazeData.getGrid());
         
         // Update UI
-        gridButtons[start.x][start.y].setBackground(Color.BLUE);
-        gridButtons[end.x][end.y].setBackground(Color.RED);
+        repaintGrid();
         
-        for (Point barrier : barriers) {
-            gridButtons[barrier.x][barrier.y].setBackground(Color.BLACK);
-        }
-        
-        statusPanel.updateGridStats(gridSize, barriers.size());
+        statusPanel.updateGridStats(gridWidth, gridHeight, gridModel.getBarrierCount());
         statusPanel.showStatusMessage("Prim's Maze generated", new Color(0, 100, 0));
     }
     
@@ -929,13 +1339,31 @@ public class PathFinderController extends JPanel {
      */
     private void takeGridScreenshot() {
         File outputFile = new File("grid_screenshot.png");
-        if (GridUtils.takeScreenshot(gridPanel, outputFile)) {
+        if (GridUtils.takeScreenshot(gridCanvas, outputFile)) {
             statusPanel.showStatusMessage("Screenshot saved", Color.GREEN);
         } else {
             statusPanel.showStatusMessage("Screenshot failed", Color.RED);
         }
     }
     
+    /**
+     * Saves the events of the last animated search in the compact trace format.
+     */
+    private void saveTrace() {
+        if (lastTrace == null) {
+            statusPanel.showStatusMessage("Run an animated search first!", Color.ORANGE);
+            return;
+        }
+        File outputFile = new File("search_trace.bin");
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(outputFile))) {
+            lastTrace.writeTo(out);
+            statusPanel.showStatusMessage("Trace saved: " + lastTrace.getEventCount() + " events in "
+                    + lastTrace.getEncodedBytes() + " bytes", Color.GREEN);
+        } catch (IOException ex) {
+            statusPanel.showStatusMessage("Trace save failed", Color.RED);
+        }
+    }
+    
     /**
      * Loads a maze from an image file.
      */
@@ -956,20 +1384,24 @@ public class PathFinderController extends JPanel {
      * Loads a maze from a screenshot file.
      */
     private void loadMazeFromScreenshot(String filePath) {
+        if (deferUntilSearchStops(() -> loadMazeFromScreenshot(filePath))) {
+            return;
+        }
         try {
             BufferedImage screenshot = ImageIO.read(new File(filePath));
             int width = screenshot.getWidth();
             int height = screenshot.getHeight();
             
-            double cellWidth = (double) width / gridSize;
-            double cellHeight = (double) height / gridSize;
+            double cellWidth = (double) width / gridWidth;
+            double cellHeight = (double) height / gridHeight;
             
+            stopAnimation();
             start = null;
             end = null;
-            barriers.clear();
+            gridModel.clear();
             
-            for (int row = 0; row < gridSize; row++) {
-                for (int col = 0; col < gridSize; col++) {
+            for (int row = 0; row < gridHeight; row++) {
+                for (int col = 0; col < gridWidth; col++) {
                     int x = (int) (col * cellWidth + cellWidth / 2);
                     int y = (int) (row * cellHeight + cellHeight / 2);
                     
@@ -977,20 +1409,20 @@ public class PathFinderController extends JPanel {
                     
                     if (GridUtils.isColorSimilar(pixelColor, Color.BLUE)) {
                         start = new Point(row, col);
-                        gridButtons[row][col].setBackground(Color.BLUE);
+                        gridCanvas.setCellColor(row, col, Color.BLUE);
                     } else if (GridUtils.isColorSimilar(pixelColor, Color.RED)) {
                         end = new Point(row, col);
-                        gridButtons[row][col].setBackground(Color.RED);
+                        gridCanvas.setCellColor(row, col, Color.RED);
                     } else if (GridUtils.isColorSimilar(pixelColor, Color.BLACK)) {
-                        barriers.add(new Point(row, col));
-                        gridButtons[row][col].setBackground(Color.BLACK);
+                        gridModel.setBlocked(row, col, true);
+                        gridCanvas.setCellColor(row, col, Color.BLACK);
                     } else {
-                        gridButtons[row][col].setBackground(Color.WHITE);
+                        gridCanvas.setCellColor(row, col, Color.WHITE);
                     }
                 }
             }
             
-            statusPanel.updateGridStats(gridSize, barriers.size());
+            statusPanel.updateGridStats(gridWidth, gridHeight, gridModel.getBarrierCount());
             statusPanel.showStatusMessage("Maze loaded from image", Color.GREEN);
         } catch (Exception ex) {
             ex.printStackTrace();
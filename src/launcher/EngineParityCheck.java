@@ -0,0 +1,198 @@
+package launcher;
+
+import algorithm.OpenSetType;
+import algorithm.PathAlgorithm;
+import algorithm.PathFinder;
+import algorithm.SearchEngineProvider;
+import algorithm.SearchEngineRegistry;
+import algorithm.SearchResult;
+import model.GridModel;
+
+import java.awt.Point;
+import java.util.Random;
+
+/**
+ * Command-line check that every engine of the standard registry answers like
+ * Dijkstra's algorithm. It runs the same queries through each engine on random
+ * grids, with and without terrain costs, and edits the grid between queries so
+ * engines that keep state across queries must repair it. Some queries start or
+ * end on a barrier. Every returned path must run from the end to the start
+ * through free, neighbouring cells and cost what the engine reports. Optimal
+ * engines must match Dijkstra's cost, and the others must find a path exactly
+ * when it does.
+ * <p>
+ * Usage: {@code java launcher.EngineParityCheck [grids] [seed]}. The exit
+ * status is 1 if any check failed.
+ */
+public class EngineParityCheck {
+    private static final int DEFAULT_GRIDS = 300;
+    private static final int MAX_SIDE = 32;
+    private static final int QUERIES_PER_GRID = 6;
+    private static final int MAX_REPORTED_FAILURES = 20;
+    private static final float TOLERANCE = 1e-3f;
+    private static final float DIAGONAL_COST = (float) Math.sqrt(2);
+
+    private final Random random;
+    private int queryCount;
+    private int limitCount;
+    private int failureCount;
+
+    private EngineParityCheck(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Runs the check and prints a summary.
+     *
+     * @param args The number of grids to try and the random seed, both optional
+     */
+    public static void main(String[] args) {
+        int grids = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GRIDS;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+        EngineParityCheck check = new EngineParityCheck(seed);
+        for (int i = 0; i < grids; i++) {
+            check.checkGrid();
+        }
+        System.out.println(grids + " grids, " + check.queryCount + " queries, "
+                + check.limitCount + " stopped at an engine limit, " + check.failureCount + " failures");
+        if (check.failureCount > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs a few queries through every engine on one random grid, editing it between queries.
+     */
+    private void checkGrid() {
+        int width = 1 + random.nextInt(MAX_SIDE);
+        int height = 1 + random.nextInt(MAX_SIDE);
+        GridModel grid = new GridModel(width, height);
+        int cellCount = grid.getCellCount();
+        int barriers = cellCount * random.nextInt(40) / 100;
+        for (int i = 0; i < barriers; i++) {
+            grid.setBlocked(random.nextInt(cellCount), true);
+        }
+        if (random.nextBoolean()) {
+            int weighted = cellCount * random.nextInt(60) / 100;
+            for (int i = 0; i < weighted; i++) {
+                grid.setCost(random.nextInt(cellCount), randomCost());
+            }
+        }
+
+        // One pathfinder for the whole grid, so engines see the edits between queries
+        PathFinder finder = new PathFinder(grid);
+        SearchEngineRegistry registry = finder.getRegistry();
+        for (int q = 0; q < QUERIES_PER_GRID; q++) {
+            int startCell = random.nextInt(cellCount);
+            int endCell = random.nextInt(cellCount);
+            if (random.nextInt(4) == 0) {
+                grid.setBlocked(random.nextBoolean() ? startCell : endCell, true);
+            } else {
+                grid.setBlocked(startCell, false);
+                grid.setBlocked(endCell, false);
+            }
+            Point start = new Point(startCell / width, startCell % width);
+            Point end = new Point(endCell / width, endCell % width);
+            String query = width + "x" + height + (grid.isUniformCost() ? "" : " weighted")
+                    + " from " + startCell + " to " + endCell;
+
+            finder.setAlgorithm(PathAlgorithm.DIJKSTRA);
+            SearchResult expected = finder.search(start, end);
+            for (SearchEngineProvider provider : registry.getProviders()) {
+                finder.setAlgorithm(provider);
+                checkResult(grid, provider, startCell, endCell, expected, finder.search(start, end), query);
+            }
+            for (OpenSetType openSetType : OpenSetType.values()) {
+                if (!finder.matchesDijkstra(start, end, openSetType)) {
+                    fail(query, "A* on " + openSetType + " disagrees with Dijkstra's algorithm");
+                }
+            }
+            queryCount++;
+
+            int edits = random.nextInt(4);
+            for (int i = 0; i < edits; i++) {
+                int cell = random.nextInt(cellCount);
+                if (random.nextBoolean()) {
+                    grid.setBlocked(cell, !grid.isBlocked(cell));
+                } else {
+                    grid.setCost(cell, randomCost());
+                }
+            }
+        }
+    }
+
+    private void checkResult(GridModel grid, SearchEngineProvider provider, int startCell, int endCell,
+                             SearchResult expected, SearchResult actual, String query) {
+        String engine = provider.getDisplayName() + ": ";
+        if (actual.isLimitReached()) {
+            limitCount++;
+            return;
+        }
+        if (actual.isFound() != expected.isFound()) {
+            fail(query, engine + (actual.isFound() ? "found a path where none exists" : "found no path"));
+            return;
+        }
+        if (!actual.isFound()) {
+            return;
+        }
+
+        // Engines that ignore terrain are replaced by A* on weighted grids, which moves in four directions
+        boolean isEightWay = provider == PathAlgorithm.JUMP_POINT_SEARCH_8 && grid.isUniformCost();
+        int[] path = actual.getPath();
+        if (path[0] != endCell || path[path.length - 1] != startCell) {
+            fail(query, engine + "path runs from " + path[0] + " to " + path[path.length - 1]);
+            return;
+        }
+        int width = grid.getWidth();
+        float cost = 0;
+        for (int i = 0; i < path.length; i++) {
+            if (grid.isBlocked(path[i])) {
+                fail(query, engine + "path crosses barrier " + path[i]);
+                return;
+            }
+            if (i == 0) {
+                continue;
+            }
+            int dRow = Math.abs(path[i] / width - path[i - 1] / width);
+            int dCol = Math.abs(path[i] % width - path[i - 1] % width);
+            if (dRow + dCol == 1) {
+                // Paths run from the end back, so the cell stepped onto is the earlier one
+                cost += grid.getCost(path[i - 1]);
+            } else if (isEightWay && dRow == 1 && dCol == 1) {
+                cost += DIAGONAL_COST;
+            } else {
+                fail(query, engine + "path jumps from " + path[i] + " to " + path[i - 1]);
+                return;
+            }
+        }
+        if (!isClose(cost, actual.getCost())) {
+            fail(query, engine + "reports cost " + actual.getCost() + " for a path costing " + cost);
+        }
+
+        float expectedCost = expected.getCost();
+        if (isEightWay) {
+            if (actual.getCost() > expectedCost + TOLERANCE) {
+                fail(query, engine + "cost " + actual.getCost() + " exceeds the 4-way optimum " + expectedCost);
+            }
+        } else if (provider.isOptimal() ? !isClose(actual.getCost(), expectedCost)
+                : actual.getCost() < expectedCost - TOLERANCE) {
+            fail(query, engine + "cost " + actual.getCost() + ", Dijkstra " + expectedCost);
+        }
+    }
+
+    private int randomCost() {
+        // Mostly cheap terrain, sometimes the dearest
+        return random.nextInt(8) == 0 ? GridModel.MAX_COST : 1 + random.nextInt(9);
+    }
+
+    private static boolean isClose(float a, float b) {
+        return Math.abs(a - b) <= TOLERANCE * Math.max(1, Math.abs(b));
+    }
+
+    private void fail(String query, String message) {
+        failureCount++;
+        if (failureCount <= MAX_REPORTED_FAILURES) {
+            System.out.println("FAIL " + query + ": " + message);
+        }
+    }
+}
@@ -1,24 +1,28 @@
 package maze;
 
+import model.GridModel;
+import util.IntList;
+
 import java.awt.Point;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 /**
  * Provides methods to generate different types of mazes.
  */
 public class MazeGenerator {
-    private final int gridSize;
+    private final int width;
+    private final int height;
     private final Random random = new Random();
 
     /**
      * Creates a new maze generator for a specific grid size.
      * 
-     * @param gridSize The size of the grid (gridSize x gridSize)
+     * @param width The number of columns
+     * @param height The number of rows
      */
-    public MazeGenerator(int gridSize) {
-        this.gridSize = gridSize;
+    public MazeGenerator(int width, int height) {
+        this.width = width;
+        this.height = height;
     }
 
     /**
@@ -28,14 +32,15 @@ public class MazeGenerator {
      * @return A MazeData object containing start, end, and barrier positions
      */
     public MazeData generateRandomMaze(int mazeDensity) {
-        MazeData mazeData = new MazeData();
+        MazeData mazeData = new MazeData(new GridModel(width, height));
+        GridModel grid = mazeData.getGrid();
         
         // Set random start point
-        mazeData.setStart(new Point(random.nextInt(gridSize), random.nextInt(gridSize)));
+        mazeData.setStart(randomPoint());
         
         // Set random end point (different from start)
         do {
-            mazeData.setEnd(new Point(random.nextInt(gridSize), random.nextInt(gridSize)));
+            mazeData.setEnd(randomPoint());
         } while (mazeData.getStart().equals(mazeData.getEnd()));
         
         // Add random barriers
@@ -44,13 +49,13 @@ public class MazeGenerator {
             int barrierX;
             int barrierY;
             do {
-                barrierX = random.nextInt(gridSize);
-                barrierY = random.nextInt(gridSize);
+                barrierX = random.nextInt(height);
+                barrierY = random.nextInt(width);
             } while (mazeData.getStart().equals(new Point(barrierX, barrierY)) || 
                      mazeData.getEnd().equals(new Point(barrierX, barrierY)) ||
-                     mazeData.getBarriers().contains(new Point(barrierX, barrierY)));
+                     grid.isBlocked(barrierX, barrierY));
             
-            mazeData.getBarriers().add(new Point(barrierX, barrierY));
+            grid.setBlocked(barrierX, barrierY, true);
         }
         
         return mazeData;
@@ -62,61 +67,51 @@ public class MazeGenerator {
      * @return A MazeData object containing start, end, and barrier positions
      */
     public MazeData generatePrimsMaze() {
-        MazeData mazeData = new MazeData();
-        boolean[][] mazeGrid = new boolean[gridSize][gridSize];
+        MazeData mazeData = new MazeData(new GridModel(width, height));
+        GridModel mazeGrid = mazeData.getGrid();
         
         // Initialize grid with all walls
-        for (int i = 0; i < gridSize; i++) {
-            for (int j = 0; j < gridSize; j++) {
-                mazeGrid[i][j] = true;
-            }
-        }
+        mazeGrid.fill();
         
         // Set random start and end points
-        mazeData.setStart(new Point(random.nextInt(gridSize), random.nextInt(gridSize)));
-        mazeData.setEnd(new Point(random.nextInt(gridSize), random.nextInt(gridSize)));
+        mazeData.setStart(randomPoint());
+        mazeData.setEnd(randomPoint());
         
         // Apply Prim's algorithm
-        mazeGrid[mazeData.getStart().x][mazeData.getStart().y] = false;
+        mazeGrid.setBlocked(mazeData.getStart().x, mazeData.getStart().y, false);
         
-        List<Point> walls = new ArrayList<>();
+        IntList walls = new IntList(64);
         addNeighboringWalls(mazeData.getStart().x, mazeData.getStart().y, walls);
         
+        int[] dx = {0, 0, 1, -1};
+        int[] dy = {1, -1, 0, 0};
         while (!walls.isEmpty()) {
             int randomWallIndex = random.nextInt(walls.size());
-            Point wall = walls.get(randomWallIndex);
+            int wall = walls.get(randomWallIndex);
             
-            int x = wall.x;
-            int y = wall.y;
-            int[] dx = {0, 0, 1, -1};
-            int[] dy = {1, -1, 0, 0};
+            int x = wall / width;
+            int y = wall % width;
             int openNeighborCount = 0;
             
             for (int i = 0; i < 4; i++) {
                 int nx = x + dx[i];
                 int ny = y + dy[i];
-                if (nx >= 0 && nx < gridSize && ny >= 0 && ny < gridSize && !mazeGrid[nx][ny]) {
+                if (mazeGrid.isInBounds(nx, ny) && !mazeGrid.isBlocked(nx, ny)) {
                     openNeighborCount++;
                 }
             }
             
             if (openNeighborCount == 1) {
-                mazeGrid[x][y] = false;
+                mazeGrid.setBlocked(x, y, false);
                 addNeighboringWalls(x, y, walls);
             }
             
-            walls.remove(randomWallIndex);
+            // Swap the last wall into the removed slot so removal is O(1)
+            walls.removeSwap(randomWallIndex);
         }
         
-        // Convert grid to barriers
-        for (int i = 0; i < gridSize; i++) {
-            for (int j = 0; j < gridSize; j++) {
-                Point point = new Point(i, j);
-                if (mazeGrid[i][j] && !point.equals(mazeData.getStart()) && !point.equals(mazeData.getEnd())) {
-                    mazeData.getBarriers().add(point);
-                }
-            }
-        }
+        // Never leave a barrier under the end point
+        mazeGrid.setBlocked(mazeData.getEnd().x, mazeData.getEnd().y, false);
         
         return mazeData;
     }
@@ -126,28 +121,44 @@ public class MazeGenerator {
      * 
      * @param x The x coordinate
      * @param y The y coordinate
-     * @param walls The list of walls to add to
+     * @param walls The list of wall cell indices to add to
      */
-    private void addNeighboringWalls(int x, int y, List<Point> walls) {
+    private void addNeighboringWalls(int x, int y, IntList walls) {
         int[] dx = {0, 0, 1, -1};
         int[] dy = {1, -1, 0, 0};
         
         for (int i = 0; i < 4; i++) {
             int nx = x + dx[i];
             int ny = y + dy[i];
-            if (nx >= 0 && nx < gridSize && ny >= 0 && ny < gridSize) {
-                walls.add(new Point(nx, ny));
+            if (nx >= 0 && nx < height && ny >= 0 && ny < width) {
+                walls.add(nx * width + ny);
             }
         }
     }
     
+    /**
+     * Picks a uniformly random cell as a (row, column) point.
+     */
+    private Point randomPoint() {
+        return new Point(random.nextInt(height), random.nextInt(width));
+    }
+    
     /**
      * Data class to hold maze information.
      */
     public static class MazeData {
+        private final GridModel grid;
         private Point start;
         private Point end;
-        private final List<Point> barriers = new ArrayList<>();
+        
+        /**
+         * Creates maze data backed by the given grid.
+         * 
+         * @param grid The grid holding the maze barriers
+         */
+        public MazeData(GridModel grid) {
+            this.grid = grid;
+        }
         
         public Point getStart() {
             return start;
@@ -165,8 +176,8 @@ public class MazeGenerator {
             this.end = end;
         }
         
-        public List<Point> getBarriers() {
-            return barriers;
+        public GridModel getGrid() {
+            return grid;
         }
     }
 }
@@ -0,0 +1,18 @@
+package model;
+
+/**
+ * Listener notified when the barriers or terrain costs of a {@link GridModel} change.
+ */
+public interface GridListener {
+    /**
+     * Called after a single cell was blocked, unblocked or given a new terrain cost.
+     * 
+     * @param cell The index of the changed cell
+     */
+    void cellChanged(int cell);
+    
+    /**
+     * Called after a bulk change that may have touched any cell (clear, fill or copy).
+     */
+    void gridChanged();
+}
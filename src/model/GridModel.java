@@ -0,0 +1,327 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Occupancy grid shared by the controller, the maze generators and the search engines.
+ * Barriers are stored as one bit per cell in a {@code long[]}, so looking up or
+ * changing a cell is O(1) regardless of how many barriers the grid holds.
+ * Free cells also carry a terrain cost from 1 to {@link #MAX_COST}, the price
+ * of stepping onto them, stored as one unsigned byte per cell. The byte layer
+ * is only allocated once a cell is given a cost other than 1.
+ * Cells are addressed either by (row, col) or by index ({@code row * width + col}).
+ * Registered {@link GridListener}s are told about every change, so derived
+ * structures can update just the part of the grid that changed, and a version
+ * stamp that grows with every change lets caches tell stale results apart.
+ */
+public class GridModel {
+    /** The highest terrain cost a cell can have. */
+    public static final int MAX_COST = 255;
+
+    private final int width;
+    private final int height;
+    private final long[] blocked;
+    private int barrierCount;
+    // Unsigned terrain costs, or null while every cell costs 1
+    private byte[] costs;
+    private int weightedCount;
+    // Written only by the editing thread, read by searches on other threads
+    private volatile long version;
+    private final List<GridListener> listeners = new ArrayList<>();
+
+    /**
+     * Creates a new empty grid.
+     *
+     * @param width The number of columns
+     * @param height The number of rows
+     */
+    public GridModel(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Grid dimensions must be positive: " + width + "x" + height);
+        }
+        if ((long) width * height > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Grid has too many cells to index with an int: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.blocked = new long[(width * height + 63) >>> 6];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getCellCount() {
+        return width * height;
+    }
+
+    public int getBarrierCount() {
+        return barrierCount;
+    }
+
+    /**
+     * Checks if every cell costs 1 to enter, so searches can assume unit moves.
+     *
+     * @return True if no cell has a terrain cost other than 1
+     */
+    public boolean isUniformCost() {
+        return weightedCount == 0;
+    }
+
+    /**
+     * Gets the version stamp, which increases every time any cell changes.
+     *
+     * @return The current version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public void addListener(GridListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(GridListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Converts a position to its cell index.
+     *
+     * @param row The row
+     * @param col The column
+     * @return The cell index
+     */
+    public int index(int row, int col) {
+        return row * width + col;
+    }
+
+    /**
+     * Checks if a position lies inside the grid.
+     *
+     * @param row The row to check
+     * @param col The column to check
+     * @return True if the position is on the grid
+     */
+    public boolean isInBounds(int row, int col) {
+        return row >= 0 && row < height && col >= 0 && col < width;
+    }
+
+    /**
+     * Checks if a position holds a barrier.
+     *
+     * @param row The row to check
+     * @param col The column to check
+     * @return True if the cell is blocked
+     */
+    public boolean isBlocked(int row, int col) {
+        return isBlocked(row * width + col);
+    }
+
+    /**
+     * Checks if a cell holds a barrier.
+     *
+     * @param cell The cell index
+     * @return True if the cell is blocked
+     */
+    public boolean isBlocked(int cell) {
+        return (blocked[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Adds or removes a barrier.
+     *
+     * @param row The row
+     * @param col The column
+     * @param isBlocked True to add a barrier, false to remove it
+     * @return True if the cell changed
+     */
+    public boolean setBlocked(int row, int col, boolean isBlocked) {
+        return setBlocked(row * width + col, isBlocked);
+    }
+
+    /**
+     * Adds or removes a barrier.
+     *
+     * @param cell The cell index
+     * @param isBlocked True to add a barrier, false to remove it
+     * @return True if the cell changed
+     */
+    public boolean setBlocked(int cell, boolean isBlocked) {
+        int word = cell >>> 6;
+        long mask = 1L << cell;
+        boolean wasBlocked = (blocked[word] & mask) != 0;
+        if (wasBlocked == isBlocked) {
+            return false;
+        }
+        if (isBlocked) {
+            blocked[word] |= mask;
+            barrierCount++;
+        } else {
+            blocked[word] &= ~mask;
+            barrierCount--;
+        }
+        version++;
+        fireCellChanged(cell);
+        return true;
+    }
+
+    /**
+     * Gets the cost of stepping onto a position.
+     *
+     * @param row The row
+     * @param col The column
+     * @return The terrain cost, or 0 if the cell is blocked
+     */
+    public int getCost(int row, int col) {
+        return getCost(row * width + col);
+    }
+
+    /**
+     * Gets the cost of stepping onto a cell.
+     *
+     * @param cell The cell index
+     * @return The terrain cost, or 0 if the cell is blocked
+     */
+    public int getCost(int cell) {
+        if (isBlocked(cell)) {
+            return 0;
+        }
+        return costs == null ? 1 : costs[cell] & 0xFF;
+    }
+
+    /**
+     * Sets the cost of stepping onto a position.
+     *
+     * @param row The row
+     * @param col The column
+     * @param cost The terrain cost from 1 to {@link #MAX_COST}, or 0 to block the cell
+     * @return True if the cell changed
+     */
+    public boolean setCost(int row, int col, int cost) {
+        return setCost(row * width + col, cost);
+    }
+
+    /**
+     * Sets the cost of stepping onto a cell. A positive cost also removes any barrier.
+     * The terrain under a barrier is kept, so removing the barrier later restores it.
+     *
+     * @param cell The cell index
+     * @param cost The terrain cost from 1 to {@link #MAX_COST}, or 0 to block the cell
+     * @return True if the cell changed
+     */
+    public boolean setCost(int cell, int cost) {
+        if (cost < 0 || cost > MAX_COST) {
+            throw new IllegalArgumentException("Cost must be between 0 and " + MAX_COST + ": " + cost);
+        }
+        if (cost == 0) {
+            return setBlocked(cell, true);
+        }
+        int previous = costs == null ? 1 : costs[cell] & 0xFF;
+        boolean changed = previous != cost;
+        if (changed) {
+            if (costs == null) {
+                costs = new byte[width * height];
+                Arrays.fill(costs, (byte) 1);
+            }
+            costs[cell] = (byte) cost;
+            weightedCount += (cost != 1 ? 1 : 0) - (previous != 1 ? 1 : 0);
+        }
+        if (isBlocked(cell)) {
+            // Clears the barrier and notifies listeners of the whole change at once
+            return setBlocked(cell, false);
+        }
+        if (changed) {
+            version++;
+            fireCellChanged(cell);
+        }
+        return changed;
+    }
+
+    /**
+     * Finds the next blocked cell at or after the given index.
+     * Iterates a whole word at a time, so walking all barriers is proportional
+     * to the grid size divided by 64 plus the number of barriers.
+     *
+     * @param fromCell The cell index to start from
+     * @return The index of the next blocked cell, or -1 if there is none
+     */
+    public int nextBlocked(int fromCell) {
+        int cells = width * height;
+        if (fromCell >= cells) {
+            return -1;
+        }
+        int word = fromCell >>> 6;
+        long bits = blocked[word] & (-1L << fromCell);
+        while (true) {
+            if (bits != 0) {
+                int cell = (word << 6) + Long.numberOfTrailingZeros(bits);
+                return cell < cells ? cell : -1;
+            }
+            if (++word == blocked.length) {
+                return -1;
+            }
+            bits = blocked[word];
+        }
+    }
+
+    /**
+     * Marks every cell as blocked.
+     */
+    public void fill() {
+        Arrays.fill(blocked, -1L);
+        int tail = (width * height) & 63;
+        if (tail != 0) {
+            blocked[blocked.length - 1] = (1L << tail) - 1;
+        }
+        barrierCount = width * height;
+        fireGridChanged();
+    }
+
+    /**
+     * Removes all barriers and resets every terrain cost to 1.
+     */
+    public void clear() {
+        Arrays.fill(blocked, 0L);
+        barrierCount = 0;
+        costs = null;
+        weightedCount = 0;
+        fireGridChanged();
+    }
+
+    /**
+     * Replaces the contents of this grid with those of another grid of the same size.
+     *
+     * @param other The grid to copy from
+     */
+    public void copyFrom(GridModel other) {
+        if (other.width != width || other.height != height) {
+            throw new IllegalArgumentException("Cannot copy a " + other.width + "x" + other.height
+                    + " grid into a " + width + "x" + height + " grid");
+        }
+        System.arraycopy(other.blocked, 0, blocked, 0, blocked.length);
+        barrierCount = other.barrierCount;
+        costs = other.costs == null ? null : other.costs.clone();
+        weightedCount = other.weightedCount;
+        fireGridChanged();
+    }
+
+    private void fireCellChanged(int cell) {
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).cellChanged(cell);
+        }
+    }
+
+    private void fireGridChanged() {
+        version++;
+        for (GridListener listener : listeners) {
+            listener.gridChanged();
+        }
+    }
+}
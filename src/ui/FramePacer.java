@@ -0,0 +1,50 @@
+package ui;
+
+/**
+ * Spreads the events of an animation over frames so that it lasts about a
+ * target duration whatever the number of events. Each frame is given the
+ * events still to show divided by the frames left before the deadline, so a
+ * frame that arrives late or does less than it was given is made up by the
+ * following ones. Past the deadline every frame is given all remaining events.
+ */
+public class FramePacer {
+    private final long frameNanos;
+    private final long deadlineNanos;
+
+    /**
+     * Starts pacing an animation now.
+     *
+     * @param durationMillis The target length of the animation in milliseconds, 0 to show everything at once
+     * @param frameMillis The time between frames in milliseconds
+     */
+    public FramePacer(long durationMillis, long frameMillis) {
+        if (durationMillis < 0) {
+            throw new IllegalArgumentException("Duration must not be negative: " + durationMillis);
+        }
+        if (frameMillis < 1) {
+            throw new IllegalArgumentException("Frame interval must be positive: " + frameMillis);
+        }
+        this.frameNanos = frameMillis * 1_000_000L;
+        this.deadlineNanos = System.nanoTime() + durationMillis * 1_000_000L;
+    }
+
+    /**
+     * Gets the number of events to show in the current frame.
+     * When the total is not known yet, callers can pass an estimate that grows
+     * with the events shown, such as twice their number, which keeps the pace
+     * rising until the real end is reached.
+     *
+     * @param shown The number of events shown so far
+     * @param total The total number of events, or an estimate of it
+     * @return The events for this frame, at least 1
+     */
+    public int eventsForFrame(long shown, long total) {
+        long remaining = total - shown;
+        if (remaining <= 1) {
+            return 1;
+        }
+        long framesLeft = Math.max(1, (deadlineNanos - System.nanoTime()) / frameNanos);
+        long events = (remaining + framesLeft - 1) / framesLeft;
+        return (int) Math.min(Integer.MAX_VALUE, events);
+    }
+}
@@ -0,0 +1,230 @@
+package ui;
+
+import model.GridModel;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * Component that draws the whole grid from one image with a pixel per cell.
+ * Cell colors are written straight into the image's int array and the image
+ * is scaled up when painted, so the cost of the component does not grow with
+ * the number of cells the way a component per cell does, and only the cells
+ * inside the repainted area are drawn. Mouse positions are converted to cells
+ * with {@link #cellAt}.
+ */
+public class GridCanvas extends JComponent {
+    private static final long serialVersionUID = 1L;
+    private static final int BARRIER_RGB = Color.BLACK.getRGB();
+    private static final Color GRID_LINE_COLOR = new Color(225, 225, 225);
+    // Cells smaller than this are drawn without grid lines, which would hide them
+    private static final int GRID_LINE_MIN_CELL_SIZE = 6;
+
+    // Colors of free cells by terrain cost, so repainting from the model needs no Color objects
+    private final int[] terrainRgb = new int[GridModel.MAX_COST + 1];
+
+    private int columns;
+    private int rows;
+    private BufferedImage image;
+    private int[] pixels;
+    private int baseCellSize;
+    private double zoom = 1;
+    // Cells changed by setCellColorLater and not yet repainted, empty while dirtyMinRow > dirtyMaxRow
+    private int dirtyMinRow;
+    private int dirtyMaxRow;
+    private int dirtyMinCol;
+    private int dirtyMaxCol;
+
+    /**
+     * Creates a new canvas with every cell white.
+     *
+     * @param columns The number of columns
+     * @param rows The number of rows
+     * @param cellSize The width and height of a cell in pixels at 100% zoom
+     */
+    public GridCanvas(int columns, int rows, int cellSize) {
+        for (int cost = 1; cost <= GridModel.MAX_COST; cost++) {
+            terrainRgb[cost] = TerrainType.colorFor(cost).getRGB();
+        }
+        setGridSize(columns, rows, cellSize);
+    }
+
+    /**
+     * Replaces the grid with a new one of the given size, with every cell white.
+     *
+     * @param columns The number of columns
+     * @param rows The number of rows
+     * @param cellSize The width and height of a cell in pixels at 100% zoom
+     */
+    public void setGridSize(int columns, int rows, int cellSize) {
+        if (columns < 1 || rows < 1) {
+            throw new IllegalArgumentException("Grid size must be positive: " + columns + "x" + rows);
+        }
+        if (cellSize < 1) {
+            throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+        }
+        this.columns = columns;
+        this.rows = rows;
+        this.baseCellSize = cellSize;
+        this.image = new BufferedImage(columns, rows, BufferedImage.TYPE_INT_RGB);
+        this.pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        Arrays.fill(pixels, Color.WHITE.getRGB());
+        clearDirtyCells();
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * Sets the zoom factor applied to the cell size.
+     *
+     * @param zoom The scale, 1 for 100%
+     */
+    public void setZoom(double zoom) {
+        if (zoom <= 0) {
+            throw new IllegalArgumentException("Zoom must be positive: " + zoom);
+        }
+        this.zoom = zoom;
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * Gets the current width and height of a cell on screen.
+     *
+     * @return The cell size in pixels, at least 1
+     */
+    public int getCellSize() {
+        return Math.max(1, (int) Math.round(baseCellSize * zoom));
+    }
+
+    /**
+     * Sets the color of one cell and repaints it.
+     *
+     * @param row The row of the cell
+     * @param col The column of the cell
+     * @param color The new color
+     */
+    public void setCellColor(int row, int col, Color color) {
+        pixels[row * columns + col] = color.getRGB();
+        int size = getCellSize();
+        repaint(col * size, row * size, size, size);
+    }
+
+    /**
+     * Sets the color of one cell without repainting it. Animations change many
+     * cells per frame this way and then call {@link #repaintDirtyCells()} once,
+     * instead of queueing a repaint per cell.
+     *
+     * @param row The row of the cell
+     * @param col The column of the cell
+     * @param color The new color
+     */
+    public void setCellColorLater(int row, int col, Color color) {
+        pixels[row * columns + col] = color.getRGB();
+        dirtyMinRow = Math.min(dirtyMinRow, row);
+        dirtyMaxRow = Math.max(dirtyMaxRow, row);
+        dirtyMinCol = Math.min(dirtyMinCol, col);
+        dirtyMaxCol = Math.max(dirtyMaxCol, col);
+    }
+
+    /**
+     * Repaints the smallest rectangle holding every cell changed by
+     * {@link #setCellColorLater} since the last call.
+     */
+    public void repaintDirtyCells() {
+        if (dirtyMinRow > dirtyMaxRow) {
+            return;
+        }
+        int size = getCellSize();
+        repaint(dirtyMinCol * size, dirtyMinRow * size,
+                (dirtyMaxCol - dirtyMinCol + 1) * size, (dirtyMaxRow - dirtyMinRow + 1) * size);
+        clearDirtyCells();
+    }
+
+    private void clearDirtyCells() {
+        dirtyMinRow = Integer.MAX_VALUE;
+        dirtyMaxRow = -1;
+        dirtyMinCol = Integer.MAX_VALUE;
+        dirtyMaxCol = -1;
+    }
+
+    /**
+     * Colors every cell from a grid model: barriers black and free cells by their terrain.
+     *
+     * @param grid The grid to show, with the same size as the canvas
+     */
+    public void showGrid(GridModel grid) {
+        if (grid.getWidth() != columns || grid.getHeight() != rows) {
+            throw new IllegalArgumentException("Grid is " + grid.getWidth() + "x" + grid.getHeight()
+                    + " but the canvas is " + columns + "x" + rows);
+        }
+        if (grid.isUniformCost()) {
+            Arrays.fill(pixels, terrainRgb[1]);
+            for (int cell = grid.nextBlocked(0); cell >= 0; cell = grid.nextBlocked(cell + 1)) {
+                pixels[cell] = BARRIER_RGB;
+            }
+        } else {
+            for (int cell = 0; cell < pixels.length; cell++) {
+                pixels[cell] = grid.isBlocked(cell) ? BARRIER_RGB : terrainRgb[grid.getCost(cell)];
+            }
+        }
+        clearDirtyCells();
+        repaint();
+    }
+
+    /**
+     * Finds the cell under a point of the component.
+     *
+     * @param x The x coordinate, as in a mouse event
+     * @param y The y coordinate, as in a mouse event
+     * @return The cell as a (row, col) point, or null if the point is outside the grid
+     */
+    public Point cellAt(int x, int y) {
+        if (x < 0 || y < 0) {
+            return null;
+        }
+        int size = getCellSize();
+        int row = y / size;
+        int col = x / size;
+        return row < rows && col < columns ? new Point(row, col) : null;
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        int size = getCellSize();
+        return new Dimension(columns * size, rows * size);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        int size = getCellSize();
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        int firstCol = Math.max(0, clip.x / size);
+        int firstRow = Math.max(0, clip.y / size);
+        int lastCol = Math.min(columns, (clip.x + clip.width + size - 1) / size);
+        int lastRow = Math.min(rows, (clip.y + clip.height + size - 1) / size);
+        if (firstCol >= lastCol || firstRow >= lastRow) {
+            return;
+        }
+
+        // Scaling with the default nearest-neighbour interpolation keeps cell edges sharp
+        g.drawImage(image, firstCol * size, firstRow * size, lastCol * size, lastRow * size,
+                firstCol, firstRow, lastCol, lastRow, null);
+
+        if (size >= GRID_LINE_MIN_CELL_SIZE) {
+            g.setColor(GRID_LINE_COLOR);
+            for (int col = firstCol; col <= lastCol; col++) {
+                g.drawLine(col * size, firstRow * size, col * size, lastRow * size - 1);
+            }
+            for (int row = firstRow; row <= lastRow; row++) {
+                g.drawLine(firstCol * size, row * size, lastCol * size - 1, row * size);
+            }
+        }
+    }
+}
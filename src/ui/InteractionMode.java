@@ -24,6 +24,11 @@ public enum InteractionMode {
      */
     REMOVE_BARRIERS,
     
+    /**
+     * Mode for painting terrain costs.
+     */
+    PAINT_TERRAIN,
+    
     /**
      * Mode for moving the start or end point.
      */
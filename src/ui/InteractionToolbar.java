@@ -13,6 +13,8 @@ public class InteractionToolbar extends JPanel {
     private final JToggleButton endButton;
     private final JToggleButton barrierButton;
     private final JToggleButton eraseButton;
+    private final JToggleButton terrainButton;
+    private final JComboBox<TerrainType> terrainBox;
     private final JToggleButton moveButton;
     private final JLabel currentModeLabel;
     
@@ -20,8 +22,9 @@ public class InteractionToolbar extends JPanel {
      * Creates a new interaction toolbar.
      * 
      * @param modeConsumer Consumer that will be called when the mode changes
+     * @param terrainConsumer Consumer that will be called when a different terrain is picked for painting
      */
-    public InteractionToolbar(Consumer<InteractionMode> modeConsumer) {
+    public InteractionToolbar(Consumer<InteractionMode> modeConsumer, Consumer<TerrainType> terrainConsumer) {
         setLayout(new FlowLayout(FlowLayout.LEFT));
         setBorder(BorderFactory.createTitledBorder("Tools"));
         
@@ -29,6 +32,14 @@ public class InteractionToolbar extends JPanel {
         endButton = createToggleButton("End Point", "Place ending point", InteractionMode.PLACE_END, modeConsumer);
         barrierButton = createToggleButton("Add Barriers", "Add barriers", InteractionMode.ADD_BARRIERS, modeConsumer);
         eraseButton = createToggleButton("Erase", "Remove barriers", InteractionMode.REMOVE_BARRIERS, modeConsumer);
+        terrainButton = createToggleButton("Paint Terrain", "Paint terrain costs", InteractionMode.PAINT_TERRAIN, modeConsumer);
+        terrainBox = new JComboBox<>(TerrainType.values());
+        terrainBox.setSelectedItem(TerrainType.MUD);
+        terrainBox.setToolTipText("Terrain to paint");
+        terrainBox.addActionListener(e -> {
+            terrainConsumer.accept((TerrainType) terrainBox.getSelectedItem());
+            terrainButton.doClick();
+        });
         moveButton = createToggleButton("Move", "Move start/end points", InteractionMode.MOVE, modeConsumer);
         
         // Pre-select the start button
@@ -44,6 +55,8 @@ public class InteractionToolbar extends JPanel {
         add(endButton);
         add(barrierButton);
         add(eraseButton);
+        add(terrainButton);
+        add(terrainBox);
         add(moveButton);
         add(Box.createHorizontalStrut(20));
         add(currentModeLabel);
@@ -88,6 +101,9 @@ public class InteractionToolbar extends JPanel {
             case REMOVE_BARRIERS:
                 eraseButton.doClick();
                 break;
+            case PAINT_TERRAIN:
+                terrainButton.doClick();
+                break;
             case MOVE:
                 moveButton.doClick();
                 break;
@@ -20,6 +20,11 @@ public class LegendPanel extends JPanel {
         addLegendItem(Color.BLACK, "Barrier");
         addLegendItem(Color.GREEN, "Final Path");
         addLegendItem(Color.YELLOW, "Explored Area");
+        for (TerrainType terrain : TerrainType.values()) {
+            if (terrain.getCost() > 1) {
+                addLegendItem(terrain.getColor(), terrain.getDisplayName() + " (cost " + terrain.getCost() + ")");
+            }
+        }
     }
     
     /**
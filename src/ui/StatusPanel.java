@@ -13,14 +13,16 @@ public class StatusPanel extends JPanel {
     private final JLabel algorithmLabel;
     private final JLabel heuristicLabel;
     private final JLabel gridStatsLabel;
+    private final JLabel solutionBoundLabel;
     private final JLabel statusMessageLabel;
     
     /**
      * Creates a new status panel with the default grid size.
      * 
-     * @param gridSize The initial grid size
+     * @param gridWidth The initial number of columns
+     * @param gridHeight The initial number of rows
      */
-    public StatusPanel(int gridSize) {
+    public StatusPanel(int gridWidth, int gridHeight) {
         setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
         setBorder(BorderFactory.createTitledBorder("Status Dashboard"));
         
@@ -31,8 +33,9 @@ public class StatusPanel extends JPanel {
         nodesExploredLabel = createStatusLabel("Nodes Explored: -", statusFont);
         timeTakenLabel = createStatusLabel("Time Taken: -", statusFont);
         algorithmLabel = createStatusLabel("Algorithm: A*", statusFont);
-        heuristicLabel = createStatusLabel("Heuristic: Euclidean", statusFont);
-        gridStatsLabel = createStatusLabel(String.format("Grid: %dx%d (0 barriers)", gridSize, gridSize), statusFont);
+        heuristicLabel = createStatusLabel("Heuristic: Manhattan", statusFont);
+        gridStatsLabel = createStatusLabel(String.format("Grid: %dx%d (0 barriers)", gridWidth, gridHeight), statusFont);
+        solutionBoundLabel = createStatusLabel("Bound: -", statusFont);
         statusMessageLabel = createStatusLabel("Ready", new Font(Font.SANS_SERIF, Font.BOLD, 12));
         statusMessageLabel.setForeground(Color.BLUE);
         
@@ -40,6 +43,7 @@ public class StatusPanel extends JPanel {
         add(createStatusRow(pathLengthLabel, nodesExploredLabel));
         add(createStatusRow(timeTakenLabel, algorithmLabel));
         add(createStatusRow(heuristicLabel, gridStatsLabel));
+        add(createStatusRow(solutionBoundLabel, new JLabel()));
         add(Box.createVerticalStrut(5));
         add(createCenteredLabel(statusMessageLabel));
     }
@@ -98,15 +102,40 @@ public class StatusPanel extends JPanel {
         timeTakenLabel.setText(String.format("Time Taken: %d ms", timeMs));
     }
     
+    /**
+     * Updates the algorithm and heuristic shown in the status panel.
+     * 
+     * @param algorithm The algorithm name
+     * @param heuristic The heuristic name
+     */
+    public void updateAlgorithm(String algorithm, String heuristic) {
+        algorithmLabel.setText("Algorithm: " + algorithm);
+        heuristicLabel.setText("Heuristic: " + heuristic);
+        solutionBoundLabel.setText("Bound: -");
+    }
+    
+    /**
+     * Shows the latest path of an anytime search and how close to optimal it is guaranteed to be.
+     * 
+     * @param cost The cost of the path
+     * @param suboptimalityBound The factor the cost is within of the optimum
+     */
+    public void updateSolutionBound(float cost, float suboptimalityBound) {
+        solutionBoundLabel.setText(suboptimalityBound <= 1
+                ? String.format("Bound: cost %.0f (optimal)", cost)
+                : String.format("Bound: cost %.0f (within %.2fx)", cost, suboptimalityBound));
+    }
+    
     /**
      * Updates grid statistics.
      * 
-     * @param gridSize The grid size
+     * @param gridWidth The number of columns
+     * @param gridHeight The number of rows
      * @param barrierCount The number of barriers
      */
-    public void updateGridStats(int gridSize, int barrierCount) {
+    public void updateGridStats(int gridWidth, int gridHeight, int barrierCount) {
         gridStatsLabel.setText(String.format("Grid: %dx%d (%d barriers)",
-                gridSize, gridSize, barrierCount));
+                gridWidth, gridHeight, barrierCount));
     }
     
     /**
@@ -0,0 +1,83 @@
+package ui;
+
+import java.awt.Color;
+
+/**
+ * Enum representing the terrain presets that can be painted onto the grid.
+ */
+public enum TerrainType {
+    /**
+     * Open ground at the normal cost of one per step.
+     */
+    ROAD("Road", 1, Color.WHITE),
+
+    /**
+     * Sand, slightly slower than open ground.
+     */
+    SAND("Sand", 2, new Color(240, 225, 170)),
+
+    /**
+     * Mud, which most paths should go around.
+     */
+    MUD("Mud", 5, new Color(180, 140, 100)),
+
+    /**
+     * Shallow water, crossed only when there is no reasonable detour.
+     */
+    WATER("Water", 10, new Color(140, 185, 235));
+
+    private final String displayName;
+    private final int cost;
+    private final Color color;
+
+    TerrainType(String displayName, int cost, Color color) {
+        this.displayName = displayName;
+        this.cost = cost;
+        this.color = color;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    public Color getColor() {
+        return color;
+    }
+
+    /**
+     * Gets the color used to draw a free cell with the given cost.
+     * Costs without a preset are shaded between the two nearest presets.
+     *
+     * @param cost The terrain cost, at least 1
+     * @return The cell color
+     */
+    public static Color colorFor(int cost) {
+        TerrainType[] types = values();
+        for (int i = 0; i < types.length; i++) {
+            if (types[i].cost == cost) {
+                return types[i].color;
+            }
+            if (types[i].cost > cost && i > 0) {
+                return blend(types[i - 1], types[i], cost);
+            }
+        }
+        return types[types.length - 1].color.darker();
+    }
+
+    @Override
+    public String toString() {
+        return displayName + " (" + cost + ")";
+    }
+
+    private static Color blend(TerrainType low, TerrainType high, int cost) {
+        float t = (float) (cost - low.cost) / (high.cost - low.cost);
+        return new Color(
+                Math.round(low.color.getRed() + t * (high.color.getRed() - low.color.getRed())),
+                Math.round(low.color.getGreen() + t * (high.color.getGreen() - low.color.getGreen())),
+                Math.round(low.color.getBlue() + t * (high.color.getBlue() - low.color.getBlue())));
+    }
+}
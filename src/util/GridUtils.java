@@ -54,14 +54,15 @@ public class GridUtils {
     /**
      * Checks if a grid size would fit on the screen.
      * 
-     * @param gridSize The grid size to check
+     * @param gridWidth The number of columns
+     * @param gridHeight The number of rows
      * @param buttonSize The size of each button in the grid
      * @return True if the grid would fit on screen
      */
-    public static boolean isGridSizeViable(int gridSize, int buttonSize) {
+    public static boolean isGridSizeViable(int gridWidth, int gridHeight, int buttonSize) {
         Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
-        int totalWidth = gridSize * buttonSize;
-        int totalHeight = gridSize * buttonSize;
+        long totalWidth = (long) gridWidth * buttonSize;
+        long totalHeight = (long) gridHeight * buttonSize;
         
         int margin = 100;
         return totalWidth <= screenSize.width - margin && totalHeight <= screenSize.height - margin;
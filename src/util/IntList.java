@@ -0,0 +1,92 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive ints.
+ * Used by the search engines to record cell indices without boxing.
+ */
+public class IntList {
+    private int[] values;
+    private int size;
+
+    /**
+     * Creates a new empty list.
+     *
+     * @param initialCapacity The number of values that fit before the list grows
+     */
+    public IntList(int initialCapacity) {
+        this.values = new int[Math.max(1, initialCapacity)];
+    }
+
+    /**
+     * Appends a value to the end of the list.
+     *
+     * @param value The value to append
+     */
+    public void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Gets the value at the specified position.
+     *
+     * @param index The position in the list
+     * @return The stored value
+     */
+    public int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return values[index];
+    }
+
+    /**
+     * Removes the value at the specified position by moving the last value into its place.
+     * Runs in O(1) but does not preserve the order of the remaining values.
+     *
+     * @param index The position to remove
+     * @return The removed value
+     */
+    public int removeSwap(int index) {
+        int value = get(index);
+        values[index] = values[--size];
+        return value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the number of values that fit before the list grows.
+     *
+     * @return The allocated capacity
+     */
+    public int capacity() {
+        return values.length;
+    }
+
+    /**
+     * Removes all values while keeping the allocated capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Copies the contents into a new array of exactly {@link #size()} values.
+     *
+     * @return The values in insertion order
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
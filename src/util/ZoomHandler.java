@@ -1,5 +1,7 @@
 package util;
 
+import ui.GridCanvas;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseWheelEvent;
@@ -9,7 +11,7 @@ import java.awt.event.MouseWheelListener;
  * Utility class for zoom functionality.
  */
 public class ZoomHandler implements MouseWheelListener {
-    private final JPanel gridPanel;
+    private final GridCanvas gridCanvas;
     private final JScrollPane scrollPane;
     
     private int zoomLevel = 100; // 100% is the default zoom
@@ -20,11 +22,11 @@ public class ZoomHandler implements MouseWheelListener {
     /**
      * Creates a new zoom handler.
      * 
-     * @param gridPanel The panel containing the grid
-     * @param scrollPane The scroll pane containing the grid panel
+     * @param gridCanvas The component drawing the grid
+     * @param scrollPane The scroll pane containing the grid canvas
      */
-    public ZoomHandler(JPanel gridPanel, JScrollPane scrollPane) {
-        this.gridPanel = gridPanel;
+    public ZoomHandler(GridCanvas gridCanvas, JScrollPane scrollPane) {
+        this.gridCanvas = gridCanvas;
         this.scrollPane = scrollPane;
     }
     
@@ -50,19 +52,19 @@ public class ZoomHandler implements MouseWheelListener {
             Point viewPosition = scrollPane.getViewport().getViewPosition();
             
             // Calculate the position of the mouse relative to the view
-            double relativeX = (viewPosition.x + viewPoint.x) / (double) gridPanel.getWidth();
-            double relativeY = (viewPosition.y + viewPoint.y) / (double) gridPanel.getHeight();
+            double relativeX = (viewPosition.x + viewPoint.x) / (double) gridCanvas.getWidth();
+            double relativeY = (viewPosition.y + viewPoint.y) / (double) gridCanvas.getHeight();
             
             // Apply zoom
             applyZoom();
             
             // Calculate new position to keep the mouse over the same logical position
-            int newX = (int) (relativeX * gridPanel.getWidth()) - viewPoint.x;
-            int newY = (int) (relativeY * gridPanel.getHeight()) - viewPoint.y;
+            int newX = (int) (relativeX * gridCanvas.getWidth()) - viewPoint.x;
+            int newY = (int) (relativeY * gridCanvas.getHeight()) - viewPoint.y;
             
             // Ensure the new position is within bounds
-            newX = Math.max(0, Math.min(newX, gridPanel.getWidth() - scrollPane.getViewport().getWidth()));
-            newY = Math.max(0, Math.min(newY, gridPanel.getHeight() - scrollPane.getViewport().getHeight()));
+            newX = Math.max(0, Math.min(newX, gridCanvas.getWidth() - scrollPane.getViewport().getWidth()));
+            newY = Math.max(0, Math.min(newY, gridCanvas.getHeight() - scrollPane.getViewport().getHeight()));
             
             // Set the new view position
             scrollPane.getViewport().setViewPosition(new Point(newX, newY));
@@ -73,28 +75,13 @@ public class ZoomHandler implements MouseWheelListener {
     }
     
     /**
-     * Applies the current zoom level to the grid panel.
+     * Applies the current zoom level to the grid canvas.
      */
     private void applyZoom() {
-        // Calculate scale factor
-        double scale = zoomLevel / 100.0;
-        
-        // Calculate new button size
-        int baseButtonSize = 30; // Base size at 100% zoom
-        int newButtonSize = (int) (baseButtonSize * scale);
-        
-        // Set new size for each button
-        Component[] components = gridPanel.getComponents();
-        for (Component component : components) {
-            if (component instanceof JButton) {
-                JButton button = (JButton) component;
-                button.setPreferredSize(new Dimension(newButtonSize, newButtonSize));
-            }
-        }
+        gridCanvas.setZoom(zoomLevel / 100.0);
         
-        // Update the panel layout
-        gridPanel.revalidate();
-        gridPanel.repaint();
+        // Lay out now, so the canvas size used to keep the mouse position is already the zoomed one
+        scrollPane.validate();
     }
     
     /**